@@ -0,0 +1,629 @@
+/**
+ * The calendar's headless core, which holds the events, the day index and the
+ * conflict engine. It does not depend on Swing or AWT, so it can be embedded in
+ * services and batch jobs; CalendarDataModel is one consumer of it.
+ * One thread writes at a time; readers on any thread never take a lock unless a
+ * write keeps overlapping their read, and always see a complete version.
+ * For calendars with millions of occurrences the core can keep them in a
+ * ColumnarOccurrenceStore instead of the day index and conflict engine.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Stores the calendar's events and answers range queries and conflict checks
+ */
+public class CalendarCore {
+    private static final int OPTIMISTIC_READS = 8; //attempts before a reader waits for the writer
+
+    private final EventTimeline timeline_; //all events in the calendar, ordered by sort key
+    private volatile EventList eventList_; //the events as a list, rebuilt on demand after a change
+    private final EventIndex eventIndex_; //events bucketed by the days they occur on, null if columnar
+    private final ConflictEngine conflictEngine_; //checks new events against the calendar, null if columnar
+    private final ColumnarOccurrenceStore columnar_; //off-heap occurrences, null unless columnar
+    private final ReentrantLock writeLock_; //lets one writer at a time check and add events
+    private final StampedLock versionLock_; //held while a writer changes the index, validated by readers
+    private final CopyOnWriteArrayList<Consumer<List<Event>>> observers_; //told about added events
+    private volatile long version_; //increases with every published change
+    private EventStore store_; //persists added events, null if the calendar is only in memory
+
+    /**
+     * Constructor for class CalendarCore
+     */
+    public CalendarCore() {
+        this(false);
+    }
+
+    /**
+     * Constructor for class CalendarCore
+     * @param columnar true to keep the occurrences in off-heap columns instead of the day index
+     */
+    public CalendarCore(boolean columnar) {
+        timeline_ = new EventTimeline();
+        eventList_ = new EventList(0, List.of());
+        eventIndex_ = columnar ? null : new EventIndex();
+        conflictEngine_ = columnar ? null : new ConflictEngine(eventIndex_);
+        columnar_ = columnar ? new ColumnarOccurrenceStore() : null;
+        writeLock_ = new ReentrantLock();
+        versionLock_ = new StampedLock();
+        observers_ = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Gets the event list. The list is copied out of the timeline the first time it is asked for
+     * after a change, and shared until the next change
+     * @return an unmodifiable list of events, ordered by first occurrence
+     */
+    public List<Event> getEvents() {
+        EventList eventList = eventList_;
+        if (eventList.version != version_) {
+            eventList = read(() -> new EventList(version_, timeline_.toList()));
+            eventList_ = eventList;
+        }
+        return eventList.events;
+    }
+
+    /**
+     * Gets the number of events in the calendar
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return timeline_.size();
+    }
+
+    /**
+     * Lists the events whose first occurrence is between two dates (both inclusive), without
+     * looking at the events outside the range
+     * @param startDate the first day of the range
+     * @param endDate the last day of the range
+     * @return the events ordered by first occurrence, then by time interval
+     */
+    public List<Event> getEventsStartingBetween(LocalDate startDate, LocalDate endDate) {
+        return read(() -> timeline_.startingBetween(startDate.toEpochDay(), endDate.toEpochDay()).toList());
+    }
+
+    /**
+     * Gets the version of the calendar
+     * @return a number that increases with every change
+     */
+    public long getVersion() {
+        return version_;
+    }
+
+    /**
+     * Gets the engine that checks events for conflicts
+     * @return the calendar's conflict engine, or null if the core is columnar
+     */
+    public ConflictEngine getConflictEngine() {
+        return conflictEngine_;
+    }
+
+    /**
+     * Gets the number of occurrences of all the events
+     * @return the number of occurrences
+     */
+    public long getOccurrenceCount() {
+        return columnar_ != null ? read(columnar_::size) : eventIndex_.getOccurrenceCount();
+    }
+
+    /**
+     * Gets the number of days that have at least one event
+     * @return the number of indexed days, or -1 if the core is columnar
+     */
+    public int getIndexedDayCount() {
+        return columnar_ != null ? -1 : eventIndex_.size();
+    }
+
+    /**
+     * Sets the store that every added event is appended to
+     * @param store the event store, or null to keep the calendar in memory only
+     */
+    public void setStore(EventStore store) {
+        store_ = store;
+    }
+
+    /**
+     * Adds an observer that is told about every batch of added events, on the writer's thread,
+     * after the events are visible to readers
+     * @param observer receives the added events
+     */
+    public void addObserver(Consumer<List<Event>> observer) {
+        observers_.add(observer);
+    }
+
+    /**
+     * Removes an observer that was added with addObserver
+     * @param observer the observer being removed
+     */
+    public void removeObserver(Consumer<List<Event>> observer) {
+        observers_.remove(observer);
+    }
+
+    /**
+     * Adds events that were already checked for conflicts, such as events loaded from a store,
+     * without checking them again or appending them to the store
+     * @param events the events being restored
+     */
+    public void restore(List<Event> events) {
+        writeLock_.lock();
+        try {
+            long stamp = versionLock_.writeLock();
+            try {
+                if (columnar_ != null) {
+                    columnar_.addAll(events);
+                }
+                else {
+                    eventIndex_.addAll(events);
+                    conflictEngine_.addAll(events);
+                }
+                timeline_.addAll(events);
+                version_++;
+            }
+            finally {
+                versionLock_.unlockWrite(stamp);
+            }
+        }
+        finally {
+            writeLock_.unlock();
+        }
+        notifyObservers(events);
+    }
+
+    /**
+     * Adds an event unless it conflicts with an event in the calendar
+     * @param event an event consisting of a description and time interval
+     * @return the event it conflicts with, or null if it was added
+     */
+    public Event addEvent(Event event) {
+        CalendarMetrics.OperationEvent metrics = CalendarMetrics.begin();
+        Event conflict;
+        writeLock_.lock();
+        try {
+            conflict = conflictFor(event);
+            if (conflict == null) {
+                persist(List.of(event));
+                publish(event);
+                snapshotIfDue();
+            }
+        }
+        finally {
+            writeLock_.unlock();
+        }
+        if (conflict == null) {
+            notifyObservers(List.of(event));
+        }
+        CalendarMetrics.ADD_EVENT.end(metrics, 1);
+        return conflict;
+    }
+
+    /**
+     * Adds many events at once: every event is checked for conflicts in one pass, against the calendar
+     * and against the accepted events of the import, which are kept in a temporary index. The accepted
+     * events are appended to the store and then become visible to readers together
+     * @param events the events being added
+     * @return a report of the added and conflicting events
+     */
+    public ImportReport importEvents(List<Event> events) {
+        CalendarMetrics.OperationEvent metrics = CalendarMetrics.begin();
+        ImportReport report = columnar_ != null ? importColumnar(events) : importIndexed(events);
+        CalendarMetrics.IMPORT_EVENTS.end(metrics, events.size());
+        return report;
+    }
+
+    /**
+     * Imports events into the index and conflict engine, see importEvents
+     * @param events the events being added
+     * @return a report of the added and conflicting events
+     */
+    private ImportReport importIndexed(List<Event> events) {
+        ImportReport report;
+        writeLock_.lock();
+        try {
+            report = checkImport(events);
+            if (!report.getAdded().isEmpty()) {
+                persist(report.getAdded());
+                long stamp = versionLock_.writeLock();
+                try {
+                    //each day's bucket and bitmap, and each timeline bucket, is replaced once for the whole batch
+                    eventIndex_.addAll(report.getAdded());
+                    conflictEngine_.addAll(report.getAdded());
+                    timeline_.addAll(report.getAdded());
+                    version_++;
+                }
+                finally {
+                    versionLock_.unlockWrite(stamp);
+                }
+                snapshotIfDue();
+            }
+        }
+        finally {
+            writeLock_.unlock();
+        }
+        if (!report.getAdded().isEmpty()) {
+            notifyObservers(report.getAdded());
+        }
+        return report;
+    }
+
+    /**
+     * Imports a file in the recurring event format, or an iCalendar file if its name ends with .ics
+     * @param path the recurring event's file
+     * @return a report of the added and conflicting events and the invalid lines
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importFile(Path path) throws IOException {
+        if (path.getFileName() != null && path.getFileName().toString().toLowerCase().endsWith(".ics")) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return importIcs(channel);
+            }
+        }
+        EventFileParser parser = new EventFileParser(path);
+        ImportReport report = importEvents(parser.parse());
+        for (int invalidLine : parser.getInvalidLines()) {
+            report.addInvalidLine(invalidLine);
+        }
+        report.setLinesPerSecond(parser.getLinesPerSecond());
+        return report;
+    }
+
+    /**
+     * Imports the VEVENTs of an iCalendar stream, one batch at a time, so only a batch of parsed events
+     * is held in memory besides the events that were added
+     * @param channel the channel the iCalendar text is read from
+     * @return a report of the added and conflicting events and the VEVENTs that could not be read
+     * @throws IOException if the channel cannot be read
+     */
+    public ImportReport importIcs(ReadableByteChannel channel) throws IOException {
+        IcsReader reader = new IcsReader(channel);
+        ImportReport report = new ImportReport();
+        reader.read(batch -> report.addReport(importEvents(batch)));
+        for (int invalidLine : reader.getInvalidLines()) {
+            report.addInvalidLine(invalidLine);
+        }
+        report.setLinesPerSecond(reader.getLinesPerSecond());
+        return report;
+    }
+
+    /**
+     * Exports the calendar as an iCalendar file, replacing the file if it exists
+     * @param path the file being written
+     * @return the number of events written
+     * @throws IOException if the file cannot be written
+     */
+    public int exportFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return exportIcs(channel);
+        }
+    }
+
+    /**
+     * Exports the events of the current version as an iCalendar stream, one VEVENT per event
+     * @param channel the channel the iCalendar text is written to
+     * @return the number of events written
+     * @throws IOException if the channel cannot be written to
+     */
+    public int exportIcs(WritableByteChannel channel) throws IOException {
+        return new IcsWriter(channel).write(getEvents());
+    }
+
+    /**
+     * Finds the event in the calendar that an event would collide with, without adding it
+     * @param event the event being checked
+     * @return the conflicting event, or null if there is none
+     */
+    public Event findConflict(Event event) {
+        return read(() -> conflictFor(event));
+    }
+
+    /**
+     * Gets the events occurring on a day
+     * @param epochDay a day counted from 1970-01-01
+     * @return the day's events ordered by start time
+     */
+    public List<Event> getEventsOn(long epochDay) {
+        return read(() -> columnar_ != null ? columnar_.eventsOn(epochDay) : eventIndex_.getEventsOn(epochDay));
+    }
+
+    /**
+     * Counts the events occurring on a day
+     * @param epochDay a day counted from 1970-01-01
+     * @return the number of events on that day
+     */
+    public int getEventCountOn(long epochDay) {
+        return read(() -> columnar_ != null ? columnar_.countOn(epochDay) : eventIndex_.countOn(epochDay));
+    }
+
+    /**
+     * Appends the events of a day as "name: H:MM-H:MM" lines, without creating an object per event
+     * @param text the text being built
+     * @param epochDay a day counted from 1970-01-01
+     */
+    public void appendDay(StringBuilder text, long epochDay) {
+        int length = text.length();
+        read(() -> {
+            text.setLength(length); //drop what a read that overlapped a write appended
+            if (columnar_ != null) {
+                columnar_.appendDay(text, epochDay);
+            }
+            else {
+                for (Event e : eventIndex_.getEventsOn(epochDay)) {
+                    text.append(e.getName_()).append(": ");
+                    PackedTime.appendInterval(text, e.getTimeInterval_().getPacked());
+                    text.append("\n");
+                }
+            }
+            return text;
+        });
+    }
+
+    /**
+     * Lists the occurrences between two dates (both inclusive), all taken from the same version
+     * @param startDate the first day of the range
+     * @param endDate the last day of the range
+     * @return a stream of occurrences ordered by day, then by start time
+     */
+    public Stream<Occurrence> occurrences(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return Stream.empty();
+        }
+        OccurrenceCursor cursor = new OccurrenceCursor();
+        ArrayList<Occurrence> occurrences = new ArrayList<>();
+        return read(() -> {
+            occurrences.clear(); //drop what a read that overlapped a write collected
+            visitOccurrences(startDate.toEpochDay(), endDate.toEpochDay(), cursor,
+                    occurrence -> occurrences.add(occurrence.toOccurrence()));
+            return occurrences;
+        }).stream();
+    }
+
+    /**
+     * Walks the occurrences between two days (both inclusive) with one reused cursor, so no object is
+     * created per occurrence. A visit cannot be taken back, so unlike the other reads this one holds
+     * the read lock: the occurrences all come from one version and writers wait until the walk ends.
+     * The visitor must not change the calendar
+     * @param fromDay the first epoch day of the range
+     * @param toDay the last epoch day of the range
+     * @param visitor receives the cursor at each occurrence, ordered by day, then by start time
+     */
+    public void forEachOccurrence(long fromDay, long toDay, Consumer<OccurrenceCursor> visitor) {
+        if (fromDay > toDay) {
+            return;
+        }
+        OccurrenceCursor cursor = new OccurrenceCursor();
+        long stamp = versionLock_.readLock();
+        try {
+            visitOccurrences(fromDay, toDay, cursor, visitor);
+        }
+        finally {
+            versionLock_.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Moves a cursor over the occurrences between two days (both inclusive). The caller must hold the
+     * read lock or run inside read()
+     * @param fromDay the first epoch day of the range
+     * @param toDay the last epoch day of the range
+     * @param cursor the cursor being moved
+     * @param visitor receives the cursor at each occurrence
+     */
+    private void visitOccurrences(long fromDay, long toDay, OccurrenceCursor cursor,
+                                  Consumer<OccurrenceCursor> visitor) {
+        if (columnar_ != null) {
+            columnar_.forEachInRange(fromDay, toDay, (packed, nameId, eventId) ->
+                    visitor.accept(cursor.moveTo(columnar_.getEvent(eventId), PackedTime.day(packed))));
+            return;
+        }
+        eventIndex_.getRange(fromDay, toDay).forEach((day, bucket) -> {
+            for (Event e : bucket) {
+                visitor.accept(cursor.moveTo(e, day));
+            }
+        });
+    }
+
+    /**
+     * Runs a read against the index without locking, retrying if a write happened during the read.
+     * Only a reader that keeps overlapping writes falls back to waiting for the writer. A read of the
+     * columns can fail while a merge moves them; such a failure is retried like any other torn read
+     * @param reader the read, which must not change anything
+     * @return the result of a read that no write overlapped
+     */
+    private <T> T read(Supplier<T> reader) {
+        for (int attempt = 0; attempt < OPTIMISTIC_READS; attempt++) {
+            long stamp = versionLock_.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    T result = reader.get();
+                    if (versionLock_.validate(stamp)) {
+                        return result;
+                    }
+                }
+                catch (RuntimeException exception) {
+                    if (versionLock_.validate(stamp)) {
+                        throw exception;
+                    }
+                }
+            }
+            Thread.onSpinWait();
+        }
+        long stamp = versionLock_.readLock();
+        try {
+            return reader.get();
+        }
+        finally {
+            versionLock_.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Adds a checked event to the index, the conflict engine and the timeline as one new version
+     * @param event the event being added
+     */
+    private void publish(Event event) {
+        long stamp = versionLock_.writeLock();
+        try {
+            if (columnar_ != null) {
+                columnar_.add(event);
+            }
+            else {
+                eventIndex_.add(event);
+                conflictEngine_.add(event);
+            }
+            timeline_.add(event);
+            version_++;
+        }
+        finally {
+            versionLock_.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Finds the event in the calendar that an event collides with. The caller must hold the writer's
+     * lock or run inside read()
+     * @param event the event being checked
+     * @return the conflicting event, or null if there is none
+     */
+    private Event conflictFor(Event event) {
+        CalendarMetrics.OperationEvent metrics = CalendarMetrics.begin();
+        Event conflict = columnar_ != null ? columnar_.findConflict(event) : conflictEngine_.findConflict(event);
+        CalendarMetrics.CONFLICT_CHECK.end(metrics, 1);
+        return conflict;
+    }
+
+    /**
+     * Checks the events of an import against the calendar and against the accepted events of the import,
+     * which are kept in a temporary index. The caller must hold the writer's lock
+     * @param events the events being added
+     * @return a report of the accepted and conflicting events
+     */
+    private ImportReport checkImport(List<Event> events) {
+        ImportReport report = new ImportReport();
+        EventIndex acceptedIndex = new EventIndex();
+        ConflictEngine accepted = new ConflictEngine(acceptedIndex);
+        for (Event event : events) {
+            Event conflict = conflictFor(event);
+            if (conflict == null) {
+                conflict = accepted.findConflict(event);
+            }
+            if (conflict != null) {
+                report.addConflict(event, conflict);
+            }
+            else {
+                acceptedIndex.add(event);
+                accepted.add(event);
+                report.addAdded(event);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Imports events into the columns: the accepted events are added to the columns in one merge
+     * @param events the events being added
+     * @return a report of the added and conflicting events
+     */
+    private ImportReport importColumnar(List<Event> events) {
+        ImportReport report;
+        writeLock_.lock();
+        try {
+            report = checkImport(events);
+            if (!report.getAdded().isEmpty()) {
+                persist(report.getAdded());
+                long stamp = versionLock_.writeLock();
+                try {
+                    columnar_.addAll(report.getAdded());
+                    timeline_.addAll(report.getAdded());
+                    version_++;
+                }
+                finally {
+                    versionLock_.unlockWrite(stamp);
+                }
+                snapshotIfDue();
+            }
+        }
+        finally {
+            writeLock_.unlock();
+        }
+        if (!report.getAdded().isEmpty()) {
+            notifyObservers(report.getAdded());
+        }
+        return report;
+    }
+
+    /**
+     * Tells the observers about added events
+     * @param added the events that were added
+     */
+    private void notifyObservers(List<Event> added) {
+        for (Consumer<List<Event>> observer : observers_) {
+            observer.accept(added);
+        }
+    }
+
+    /**
+     * Appends accepted events to the store, if there is one, before they are added. If the store
+     * cannot be written the calendar is left unchanged
+     * @param accepted the events about to be added
+     * @throws UncheckedIOException if the store cannot be written
+     */
+    private void persist(List<Event> accepted) {
+        if (store_ != null) {
+            try {
+                store_.append(accepted);
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    /**
+     * Lets the store fold its log into a snapshot once the appended events were added. A snapshot
+     * that cannot be written is tried again after the next append, the log still holds every event
+     */
+    private void snapshotIfDue() {
+        if (store_ != null) {
+            try {
+                store_.snapshotIfDue(this);
+            }
+            catch (IOException exception) {
+                //the events are on disk in the log, only folding it is put off
+            }
+        }
+    }
+
+    /**
+     * Holds the event list copied out of the timeline and the version it was copied at
+     */
+    private static class EventList {
+        private final long version;
+        private final List<Event> events;
+
+        /**
+         * Constructor for class EventList
+         * @param version the version the events were copied at
+         * @param events the events
+         */
+        private EventList(long version, List<Event> events) {
+            this.version = version;
+            this.events = events;
+        }
+    }
+}
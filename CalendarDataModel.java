@@ -1,27 +1,41 @@
 /**
  * The calendar's data structure, which has array list containers for all the events
  * and the change listeners for the mvc architecture. This class also features
- * mutators that modify the calendar's date (model of the MVC architecture)
+ * mutators that modify the calendar's date (model of the MVC architecture).
+ * The events themselves are kept in a headless CalendarCore
  * @author Dimitar Dimitrov
  * @version 7/31/2021
  */
-import javax.swing.*;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Scanner;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 /**
  * The calendar's data model class that initializes and modifies the calendar's date
  */
 public class CalendarDataModel {
-    private final ArrayList<Event> events_; //all events in the user's calendar
-    private final ArrayList<ChangeListener> changeListeners_; //for the mvc architecture
+    private final CalendarCore core_; //events, index and conflict engine (no Swing)
+    private final DayFragmentCache dayFragments_; //rendered text of each day
+    private FreeBusyIndex freeBusy_; //busy minutes of each day, built on the first free time search
+    private String textAreaContent_; //last text area content, null when it has to be rebuilt
+    private long contentGeneration_; //fragment cache generation the last text area content was built from
+    private long contentStartDay_; //first epoch day of the last text area content
+    private long contentEndDay_; //last epoch day of the last text area content
+    private EventListModel eventListModel_; //rows of the view's days, rendered as the list scrolls
+    private SwingWorker<EventListModel, Void> eventListWorker_; //builds the list model of the latest request
+    private final CopyOnWriteArrayList<ChangeListener> changeListeners_; //for the mvc architecture
+    private int batchDepth_; //number of open batches, notifications wait until it is back to 0
+    private boolean notificationPending_; //a change happened while notifications were deferred
+    private Timer coalescingTimer_; //fires the deferred notification at the end of a coalescing window
 
     private LocalDate date_; // the date occurring during the day/week/month the user wants to view
     private String view_; // the type of view the user wants: day, week, month, or agenda
@@ -33,59 +47,147 @@ public class CalendarDataModel {
      * Constructor for class CalendarDataModel
      */
     public CalendarDataModel() {
-        events_ = new ArrayList<>();
-        changeListeners_ = new ArrayList<>();
+        this(new CalendarCore());
+    }
+
+    /**
+     * Constructor for class CalendarDataModel that shows an existing calendar
+     * @param core the calendar's core, for example one loaded from an EventStore
+     */
+    public CalendarDataModel(CalendarCore core) {
+        core_ = core;
+        dayFragments_ = new DayFragmentCache();
+        changeListeners_ = new CopyOnWriteArrayList<>();
+        core_.addObserver(added -> {
+            for (Event event : added) {
+                dayFragments_.invalidate(event.getDays());
+            }
+        });
         date_ = LocalDate.now();
         view_ = "day";
         colorMode = new LightMode();
     }
 
+    /**
+     * Gets the headless core holding the calendar's events
+     * @return the calendar's core
+     */
+    public CalendarCore getCore() {
+        return core_;
+    }
+
     /**
      * Gets the event list
-     * @return an array list of events
+     * @return an unmodifiable list of events
      */
-    public ArrayList<Event> getEvents() {
-        return events_;
+    public List<Event> getEvents() {
+        return core_.getEvents();
     }
 
     /**
-     * Adds an event to the event list
+     * Gets the engine that checks events for conflicts
+     * @return the calendar's conflict engine
+     */
+    public ConflictEngine getConflictEngine() {
+        return core_.getConflictEngine();
+    }
+
+    /**
+     * Adds an event to the event list unless it conflicts with another event
      * @param event an event consisting of a description and time interval
+     * @return the event it conflicts with, or null if it was added
      */
-    public void addEvent(Event event) {
-        for (Event e : events_) {
-            if (e.conflictsWith(event)) {
-                JPanel panel = new JPanel();
-                JOptionPane.showMessageDialog(panel, "Error: cannot add " + event.getName_() + " because it " +
-                        "conflicts with " + e.getName_() + ".", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
+    public Event addEvent(Event event) {
+        Event conflict = core_.addEvent(event);
+        if (conflict == null) {
+            notifyView();
         }
-        events_.add(event);
-        Collections.sort(events_);
-        notifyView();
+        return conflict;
+    }
+
+    /**
+     * Finds the first free slots of the calendar between two dates
+     * @param startDate the first day searched
+     * @param endDate the last day searched (inclusive)
+     * @param length the slot's length in minutes
+     * @param count the most slots returned
+     * @return the slots as packed occurrences (see PackedTime), in order and not overlapping
+     */
+    public long[] findFreeSlots(LocalDate startDate, LocalDate endDate, int length, int count) {
+        if (freeBusy_ == null) {
+            freeBusy_ = FreeBusyIndex.of(core_);
+        }
+        return FreeBusyIndex.findFreeSlots(List.of(freeBusy_), startDate, endDate, length, count);
+    }
+
+    /**
+     * Adds many events at once, notifying the viewer once
+     * @param events the events being added
+     * @return a report of the added and conflicting events
+     */
+    public ImportReport importEvents(List<Event> events) {
+        return notifyImported(core_.importEvents(events));
     }
 
     /**
-     * Adds recurring events to the event list
+     * Adds recurring events to the event list, notifying the viewer once
      * @param filename the recurring event's file
+     * @return a report of the added and conflicting events and the invalid lines
+     * @throws IOException if the file cannot be read
      */
-    public void addRecurringEvents(String filename) {
-        File file = new File(filename);
-        try {
-            Scanner scanner = new Scanner(file);
-            String line;
-            while (scanner.hasNextLine()) {
-                line = scanner.nextLine();
-                Event newEvent = new Event(line);
-                addEvent(newEvent);
-            }
+    public ImportReport addRecurringEvents(String filename) throws IOException {
+        return notifyImported(core_.importFile(Path.of(filename)));
+    }
+
+    /**
+     * Starts a batch of changes: the viewer is not notified until the matching commitBatch call.
+     * Batches can be nested, only the outermost commit notifies the viewer
+     */
+    public void beginBatch() {
+        batchDepth_++;
+    }
+
+    /**
+     * Ends a batch of changes, notifying the viewer once if anything changed during the batch
+     */
+    public void commitBatch() {
+        if (batchDepth_ == 0) {
+            throw new IllegalStateException("commitBatch called without beginBatch");
+        }
+        batchDepth_--;
+        if (batchDepth_ == 0 && notificationPending_) {
+            notificationPending_ = false;
             notifyView();
         }
-        catch (FileNotFoundException exception) {
-            JPanel panel = new JPanel();
-            JOptionPane.showMessageDialog(panel, "Error: invalid file name.", "Error",
-                    JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Runs a series of changes as one batch, so the viewer is notified at most once
+     * @param changes the changes to the model
+     */
+    public void batch(Runnable changes) {
+        beginBatch();
+        try {
+            changes.run();
+        }
+        finally {
+            commitBatch();
+        }
+    }
+
+    /**
+     * Sets a coalescing window: notifications within the window are merged into one that is fired
+     * (on the event dispatch thread) when the window ends
+     * @param millis the length of the window in milliseconds, 0 to notify right away
+     */
+    public void setCoalescingWindow(int millis) {
+        if (coalescingTimer_ != null) {
+            coalescingTimer_.stop();
+            coalescingTimer_ = null;
+        }
+        if (millis > 0) {
+            coalescingTimer_ = new Timer(millis, e -> fireStateChanged());
+            coalescingTimer_.setRepeats(false);
         }
     }
 
@@ -209,76 +311,181 @@ public class CalendarDataModel {
     }
 
     /**
-     * Gets all the events for the text area utilizing getEventsInDay method
+     * Gets all the events for the text area utilizing getEventsInDay method. The content is
+     * put together from cached day fragments and reused as long as the range and events stay the same
      * @return a string of events
      */
     public String getTextAreaContent() {
-        StringBuilder textAreaContent = new StringBuilder();
-        if (view_.equals("day")) {
-            textAreaContent = new StringBuilder(getEventsInDay(date_));
+        LocalDate[] range = getViewRange();
+        if (range == null) {
+            return "";
         }
-        else if (view_.equals("week")) {
-            LocalDate dateIterator = date_;
-            while(!dateIterator.getDayOfWeek().equals(DayOfWeek.SUNDAY)) {
-                dateIterator = dateIterator.minusDays(1);
-            }
+        LocalDate startDate = range[0];
+        LocalDate endDate = range[1];
 
-            for (int i = 0; i < 7; i++) {
-                textAreaContent.append(getEventsInDay(dateIterator));
-                dateIterator = dateIterator.plusDays(1);
+        long startDay = startDate.toEpochDay();
+        long endDay = endDate.toEpochDay();
+        long generation = dayFragments_.getGeneration();
+        if (textAreaContent_ == null || startDay != contentStartDay_ || endDay != contentEndDay_
+                || generation != contentGeneration_) {
+            CalendarMetrics.OperationEvent metrics = CalendarMetrics.begin();
+            generation = dayFragments_.watch(startDay, endDay); //changes to other days keep this content
+            StringBuilder textAreaContent = new StringBuilder();
+            for (long day = startDay; day <= endDay; day++) {
+                textAreaContent.append(getEventsInDay(day));
             }
+            textAreaContent_ = textAreaContent.toString();
+            CalendarMetrics.TEXT_AREA_CONTENT.end(metrics, Math.max(0, endDay - startDay + 1));
+            contentStartDay_ = startDay;
+            contentEndDay_ = endDay;
+            contentGeneration_ = generation;
+        }
+        return textAreaContent_;
+    }
 
+    /**
+     * Gets the events of the view's days as a list model that renders rows only when they are shown,
+     * so long ranges such as a multi-year agenda do not have to be put together as one string.
+     * The same model is returned as long as the range and the events stay the same
+     * @return the list model of the view's days
+     */
+    public EventListModel getEventListModel() {
+        LocalDate[] range = getListRange();
+        if (eventListModel_ == null || !eventListModel_.isCurrent(range[0], range[1])) {
+            eventListModel_ = new EventListModel(core_, range[0], range[1]);
         }
-        else if (view_.equals("month")) {
-            LocalDate dateIterator = date_;
-            dateIterator = dateIterator.withDayOfMonth(1);
-            while(dateIterator.getMonthValue() == date_.getMonthValue()) {
-                textAreaContent.append(getEventsInDay(dateIterator));
-                dateIterator = dateIterator.plusDays(1);
+        return eventListModel_;
+    }
+
+    /**
+     * Builds the list model of the view's days on a background thread and hands it to a callback
+     * on the event dispatch thread. A new request cancels the one still being built, so only the
+     * latest view is ever handed over; a model that is still current is handed over right away
+     * @param loaded receives the list model, on the event dispatch thread
+     * @param failed receives the error message if the model could not be built, on the event dispatch thread
+     */
+    public void loadEventListModel(Consumer<EventListModel> loaded, Consumer<String> failed) {
+        LocalDate[] range = getListRange();
+        if (eventListWorker_ != null) {
+            eventListWorker_.cancel(true);
+            eventListWorker_ = null;
+        }
+        if (eventListModel_ != null && eventListModel_.isCurrent(range[0], range[1])) {
+            loaded.accept(eventListModel_);
+            return;
+        }
+        SwingWorker<EventListModel, Void> worker = new SwingWorker<>() {
+            @Override
+            protected EventListModel doInBackground() {
+                return new EventListModel(core_, range[0], range[1]);
+            }
+
+            @Override
+            protected void done() {
+                if (eventListWorker_ != this || isCancelled()) {
+                    return; //a newer request took over
+                }
+                eventListWorker_ = null;
+                try {
+                    eventListModel_ = get();
+                    loaded.accept(eventListModel_);
+                }
+                catch (InterruptedException | ExecutionException exception) {
+                    Throwable cause = exception instanceof ExecutionException ? exception.getCause() : exception;
+                    failed.accept("Error: could not list the events: " + cause);
+                }
             }
+        };
+        eventListWorker_ = worker;
+        worker.execute();
+    }
+
+    /**
+     * Gets the days the event list shows
+     * @return the first and last day (inclusive), an empty range if the view type is invalid
+     */
+    private LocalDate[] getListRange() {
+        LocalDate[] range = getViewRange();
+        return range == null ? new LocalDate[] {date_, date_.minusDays(1)} : range;
+    }
 
+    /**
+     * Gets the days the view type shows
+     * @return the first and last day (inclusive), or null if the view type is invalid
+     */
+    private LocalDate[] getViewRange() {
+        if (view_.equals("day")) {
+            return new LocalDate[] {date_, date_};
+        }
+        else if (view_.equals("week")) {
+            LocalDate startDate = date_;
+            while(!startDate.getDayOfWeek().equals(DayOfWeek.SUNDAY)) {
+                startDate = startDate.minusDays(1);
+            }
+            return new LocalDate[] {startDate, startDate.plusDays(6)};
+        }
+        else if (view_.equals("month")) {
+            return new LocalDate[] {date_.withDayOfMonth(1), date_.withDayOfMonth(date_.lengthOfMonth())};
         }
         else if (view_.equals("agenda")) {
-            LocalDate dateIterator = startAgendaDate_;
-            while (!dateIterator.isAfter(endAgendaDate_)) {
-                textAreaContent.append(getEventsInDay(dateIterator));
-                dateIterator = dateIterator.plusDays(1);
+            return new LocalDate[] {startAgendaDate_, endAgendaDate_};
+        }
+        System.out.println("Error: invalid view type."); //for debugging purposes
+        return null;
+    }
+
+    /**
+     * Notifies the viewer (state changed), unless a batch is open or a coalescing window is running
+     */
+    private void notifyView() {
+        if (batchDepth_ > 0) {
+            notificationPending_ = true;
+        }
+        else if (coalescingTimer_ != null) {
+            if (!coalescingTimer_.isRunning()) {
+                coalescingTimer_.start();
             }
         }
         else {
-            System.out.println("Error: invalid view type."); //for debugging purposes
+            fireStateChanged();
         }
-        return textAreaContent.toString();
     }
 
     /**
-     * Notifies the viewer (state changed)
+     * Runs every change listener
      */
-    private void notifyView() {
+    private void fireStateChanged() {
+        CalendarMetrics.OperationEvent metrics = CalendarMetrics.begin();
         ChangeEvent changeEvent = new ChangeEvent(this);
         for (ChangeListener listener : changeListeners_) {
             listener.stateChanged(changeEvent);
         }
+        CalendarMetrics.NOTIFY_VIEW.end(metrics, changeListeners_.size());
     }
 
     /**
-     * Gets the events for a specified day
-     * @param date a specified date
+     * Gets the events for a specified day from the fragment cache
+     * @param epochDay a specified day counted from 1970-01-01
      * @return String of events
      */
-    private String getEventsInDay(LocalDate date) {
-        ArrayList<Event> eventsForDay = new ArrayList<>();
-        String dayEvents = date + "\n";
-        for (Event e : events_) {
-            if (e.getDates_().contains(date)) {
-                eventsForDay.add(new Event(e.getName_(), date, e.getTimeInterval_().getStartTime_(),
-                        e.getTimeInterval_().getEndTime_()));
-            }
-        }
-        Collections.sort(eventsForDay);
-        for (Event e : eventsForDay) {
-            dayEvents += e + "\n";
+    private String getEventsInDay(long epochDay) {
+        return dayFragments_.get(epochDay, day -> {
+            StringBuilder dayEvents = new StringBuilder();
+            dayEvents.append(LocalDate.ofEpochDay(day)).append("\n");
+            core_.appendDay(dayEvents, day);
+            return dayEvents.append("\n").toString();
+        });
+    }
+
+    /**
+     * Notifies the viewer if an import added anything
+     * @param report the report of an import
+     * @return the same report
+     */
+    private ImportReport notifyImported(ImportReport report) {
+        if (!report.getAdded().isEmpty()) {
+            notifyView();
         }
-        return dayEvents + "\n";
+        return report;
     }
 }
@@ -0,0 +1,295 @@
+/**
+ * CalendarMetrics class that instruments the calendar's hot paths. Every
+ * measured operation is a JFR event (calendar.Operation) for Flight
+ * Recorder and JMC, and feeds a counter and latency histogram that an MXBean
+ * exposes together with the calendar's sizes. When no recording is running
+ * and the MXBean is not registered, measuring costs a couple of field reads.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures operations and exposes the results over JMX.
+ * Usage: {@code OperationEvent event = CalendarMetrics.begin(); ... CalendarMetrics.ADD_EVENT.end(event, 1);}
+ */
+public class CalendarMetrics implements CalendarMetricsMXBean {
+    public static final String OBJECT_NAME = "calendar:type=CalendarMetrics";
+
+    public static final Operation ADD_EVENT = new Operation("addEvent");
+    public static final Operation IMPORT_EVENTS = new Operation("importEvents");
+    public static final Operation CONFLICT_CHECK = new Operation("conflictCheck");
+    public static final Operation TEXT_AREA_CONTENT = new Operation("textAreaContent");
+    public static final Operation EVENT_LIST_MODEL = new Operation("eventListModel");
+    public static final Operation NOTIFY_VIEW = new Operation("notifyView");
+    public static final Operation PAINT_ICON = new Operation("paintIcon");
+    private static final Operation[] OPERATIONS = {ADD_EVENT, IMPORT_EVENTS, CONFLICT_CHECK, TEXT_AREA_CONTENT,
+            EVENT_LIST_MODEL, NOTIFY_VIEW, PAINT_ICON};
+
+    private static final EventType OPERATION_EVENT_TYPE = EventType.getEventType(OperationEvent.class);
+    private static volatile boolean enabled_; //true once the MXBean is registered
+
+    private final CalendarCore core_; //the calendar whose sizes are exposed
+
+    /**
+     * Constructor for class CalendarMetrics
+     * @param core the calendar whose sizes are exposed
+     */
+    private CalendarMetrics(CalendarCore core) {
+        core_ = core;
+    }
+
+    /**
+     * Registers the MXBean for a calendar with the platform MBean server, replacing the one of
+     * an earlier calendar, and starts recording latencies
+     * @param core the calendar whose sizes are exposed
+     * @throws IllegalStateException if the MXBean cannot be registered
+     */
+    public static void register(CalendarCore core) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            try {
+                server.registerMBean(new CalendarMetrics(core), name);
+            }
+            catch (InstanceAlreadyExistsException exception) {
+                server.unregisterMBean(name);
+                server.registerMBean(new CalendarMetrics(core), name);
+            }
+            enabled_ = true;
+        }
+        catch (JMException exception) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, exception);
+        }
+    }
+
+    /**
+     * Starts measuring an operation
+     * @return the operation's JFR event, or null if neither JFR nor the MXBean is listening
+     */
+    public static OperationEvent begin() {
+        if (!enabled_ && !OPERATION_EVENT_TYPE.isEnabled()) {
+            return null;
+        }
+        OperationEvent event = new OperationEvent();
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Gets the number of events in the calendar
+     * @return the number of events
+     */
+    @Override
+    public int getEventCount() {
+        return core_.getEventCount();
+    }
+
+    /**
+     * Gets the number of occurrences in the calendar's index
+     * @return the number of occurrences
+     */
+    @Override
+    public long getOccurrenceCount() {
+        return core_.getOccurrenceCount();
+    }
+
+    /**
+     * Gets the number of days that have at least one event
+     * @return the number of indexed days, or -1 if the calendar is columnar
+     */
+    @Override
+    public int getIndexedDayCount() {
+        return core_.getIndexedDayCount();
+    }
+
+    /**
+     * Gets the version of the calendar
+     * @return a number that increases with every change
+     */
+    @Override
+    public long getVersion() {
+        return core_.getVersion();
+    }
+
+    /**
+     * Gets the counts and latencies of every measured operation
+     * @return the statistics keyed by operation name
+     */
+    @Override
+    public Map<String, OperationStats> getOperations() {
+        LinkedHashMap<String, OperationStats> operations = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS) {
+            operations.put(operation.name_, operation.getStats());
+        }
+        return operations;
+    }
+
+    /**
+     * Clears the counts and latencies
+     */
+    @Override
+    public void reset() {
+        for (Operation operation : OPERATIONS) {
+            operation.reset();
+        }
+    }
+
+    /**
+     * An operation that is measured, with its count and latency histogram. The histogram has
+     * eight buckets per power of two of nanoseconds, so percentiles are within 12.5%
+     */
+    public static class Operation {
+        private static final int BUCKETS = 61 * 8;
+
+        private final String name_;
+        private final LongAdder count_;
+        private final LongAdder items_;
+        private final AtomicLongArray buckets_; //bucket -> number of latencies in it
+        private final AtomicLong maxNanos_;
+
+        /**
+         * Constructor for class Operation
+         * @param name the operation's name, as shown in JFR and JMX
+         */
+        private Operation(String name) {
+            name_ = name;
+            count_ = new LongAdder();
+            items_ = new LongAdder();
+            buckets_ = new AtomicLongArray(BUCKETS);
+            maxNanos_ = new AtomicLong();
+        }
+
+        /**
+         * Finishes measuring the operation: records its latency and commits its JFR event
+         * @param event the event from CalendarMetrics.begin, or null if nothing is listening
+         * @param items the number of items the operation handled
+         */
+        public void end(OperationEvent event, long items) {
+            if (event == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - event.startNanos;
+            if (enabled_) {
+                count_.increment();
+                items_.add(items);
+                buckets_.incrementAndGet(bucket(nanos));
+                maxNanos_.accumulateAndGet(nanos, Math::max);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = name_;
+                event.items = items;
+                event.commit();
+            }
+        }
+
+        /**
+         * Takes a snapshot of the operation's statistics
+         * @return the statistics
+         */
+        private OperationStats getStats() {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets_.get(i);
+                total += counts[i];
+            }
+            long maxNanos = maxNanos_.get();
+            //a bucket's upper edge can be above the highest latency that landed in it
+            return new OperationStats(count_.sum(), items_.sum(),
+                    Math.min(percentile(counts, total, 0.5), maxNanos) / 1000.0,
+                    Math.min(percentile(counts, total, 0.99), maxNanos) / 1000.0, maxNanos / 1000.0);
+        }
+
+        /**
+         * Clears the operation's statistics
+         */
+        private void reset() {
+            count_.reset();
+            items_.reset();
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets_.set(i, 0);
+            }
+            maxNanos_.set(0);
+        }
+
+        /**
+         * Finds the bucket of a latency
+         * @param nanos the latency in nanoseconds
+         * @return the bucket's index
+         */
+        private static int bucket(long nanos) {
+            if (nanos < 8) {
+                return (int) Math.max(nanos, 0);
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            return Math.min(BUCKETS - 1, (exponent - 2) * 8 + (int) ((nanos >> (exponent - 3)) & 7));
+        }
+
+        /**
+         * Estimates a percentile from the histogram as the upper edge of the bucket it falls in
+         * @param counts the number of latencies in each bucket
+         * @param total the number of latencies
+         * @param fraction the percentile as a fraction, such as 0.99
+         * @return the latency in nanoseconds, 0 if there are none
+         */
+        private static long percentile(long[] counts, long total, double fraction) {
+            long rank = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS && total > 0; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return lowerEdge(i + 1) - 1;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Gets the smallest latency of a bucket
+         * @param bucket the bucket's index
+         * @return the latency in nanoseconds
+         */
+        private static long lowerEdge(int bucket) {
+            if (bucket < 8) {
+                return bucket;
+            }
+            return (long) (8 + bucket % 8) << (bucket / 8 - 1);
+        }
+    }
+
+    /**
+     * The JFR event of one measured operation
+     */
+    @Name("calendar.Operation")
+    @Label("Calendar Operation")
+    @Category("Calendar")
+    @Description("A measured operation of the calendar's model or rendering")
+    public static class OperationEvent extends jdk.jfr.Event {
+        @Label("Operation")
+        private String operation;
+
+        @Label("Items")
+        @Description("Events, days, listeners or shapes the operation handled")
+        private long items;
+
+        private transient long startNanos; //not recorded, the event has its own duration
+    }
+}
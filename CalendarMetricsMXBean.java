@@ -0,0 +1,47 @@
+/**
+ * CalendarMetricsMXBean interface for CalendarMetrics, the management
+ * interface that JConsole, JMC and other JMX clients read.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.util.Map;
+
+/**
+ * Exposes the calendar's sizes and the latency of its hot paths over JMX
+ */
+public interface CalendarMetricsMXBean {
+    /**
+     * Gets the number of events in the calendar
+     * @return the number of events
+     */
+    int getEventCount();
+
+    /**
+     * Gets the number of occurrences in the calendar's index
+     * @return the number of occurrences
+     */
+    long getOccurrenceCount();
+
+    /**
+     * Gets the number of days that have at least one event
+     * @return the number of indexed days, or -1 if the calendar is columnar
+     */
+    int getIndexedDayCount();
+
+    /**
+     * Gets the version of the calendar
+     * @return a number that increases with every change
+     */
+    long getVersion();
+
+    /**
+     * Gets the counts and latencies of every measured operation
+     * @return the statistics keyed by operation name
+     */
+    Map<String, OperationStats> getOperations();
+
+    /**
+     * Clears the counts and latencies
+     */
+    void reset();
+}
@@ -0,0 +1,210 @@
+/**
+ * CalendarRegistry class that holds many user calendars in one JVM. Every
+ * calendar is its own CalendarCore with its own index and write lock, so a
+ * busy calendar never holds up the others, and queries over many calendars
+ * fan out across a fork-join pool.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maps calendar ids to calendar cores and runs queries over several calendars in parallel
+ */
+public class CalendarRegistry {
+    private final ConcurrentHashMap<String, CalendarCore> calendars_; //calendar id -> calendar
+    private final ConcurrentHashMap<String, FreeBusyIndex> freeBusy_; //calendar id -> busy minutes, built on first search
+    private final ForkJoinPool pool_; //runs queries that span calendars
+    private final boolean columnar_; //true if new calendars keep their occurrences off-heap
+
+    /**
+     * Constructor for class CalendarRegistry, running queries on the common fork-join pool
+     */
+    public CalendarRegistry() {
+        this(ForkJoinPool.commonPool(), false);
+    }
+
+    /**
+     * Constructor for class CalendarRegistry
+     * @param pool the pool that queries spanning calendars run on
+     * @param columnar true to create calendars that keep their occurrences off-heap
+     */
+    public CalendarRegistry(ForkJoinPool pool, boolean columnar) {
+        calendars_ = new ConcurrentHashMap<>();
+        freeBusy_ = new ConcurrentHashMap<>();
+        pool_ = pool;
+        columnar_ = columnar;
+    }
+
+    /**
+     * Gets a calendar, creating an empty one if the id is new
+     * @param id the calendar's id, such as a user name
+     * @return the calendar
+     */
+    public CalendarCore getOrCreate(String id) {
+        return calendars_.computeIfAbsent(id, key -> new CalendarCore(columnar_));
+    }
+
+    /**
+     * Adds a calendar that was created elsewhere, such as one loaded from an EventStore
+     * @param id the calendar's id
+     * @param calendar the calendar
+     * @throws IllegalArgumentException if the id is already taken
+     */
+    public void register(String id, CalendarCore calendar) {
+        if (calendars_.putIfAbsent(id, calendar) != null) {
+            throw new IllegalArgumentException("Calendar already registered: " + id);
+        }
+    }
+
+    /**
+     * Gets a calendar
+     * @param id the calendar's id
+     * @return the calendar, or null if there is none with that id
+     */
+    public CalendarCore get(String id) {
+        return calendars_.get(id);
+    }
+
+    /**
+     * Removes a calendar
+     * @param id the calendar's id
+     * @return the removed calendar, or null if there was none with that id
+     */
+    public CalendarCore remove(String id) {
+        CalendarCore[] removed = new CalendarCore[1];
+        //the index is dropped under the calendar's entry, so a search cannot attach a new one in between
+        calendars_.computeIfPresent(id, (key, calendar) -> {
+            removed[0] = calendar;
+            FreeBusyIndex index = freeBusy_.remove(key);
+            if (index != null) {
+                index.detach();
+            }
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Gets the ids of the calendars
+     * @return a live, unmodifiable view of the ids
+     */
+    public Set<String> getIds() {
+        return Collections.unmodifiableSet(calendars_.keySet());
+    }
+
+    /**
+     * Gets the number of calendars
+     * @return the number of calendars
+     */
+    public int size() {
+        return calendars_.size();
+    }
+
+    /**
+     * Lists the occurrences of several calendars between two dates (both inclusive). The calendars
+     * are read in parallel; each calendar's list comes from one version of that calendar
+     * @param ids the calendars' ids (unknown ids are skipped)
+     * @param startDate the first day of the range
+     * @param endDate the last day of the range
+     * @return each calendar's occurrences ordered by day and start time, keyed by id in the order of ids
+     */
+    public Map<String, List<Occurrence>> occurrences(Collection<String> ids, LocalDate startDate, LocalDate endDate) {
+        return query(ids, calendar -> calendar.occurrences(startDate, endDate).collect(Collectors.toList()));
+    }
+
+    /**
+     * Finds the calendars an event would conflict with, such as when scheduling a meeting
+     * @param ids the calendars' ids (unknown ids are skipped)
+     * @param event the event being checked
+     * @return the conflicting event of every calendar that has one, keyed by id in the order of ids
+     */
+    public Map<String, Event> findConflicts(Collection<String> ids, Event event) {
+        Map<String, Event> conflicts = query(ids, calendar -> calendar.findConflict(event));
+        conflicts.values().removeIf(Objects::isNull);
+        return conflicts;
+    }
+
+    /**
+     * Finds the first free slots that several calendars have in common, such as for a meeting
+     * @param ids the calendars' ids (unknown ids are skipped)
+     * @param startDate the first day searched
+     * @param endDate the last day searched (inclusive)
+     * @param length the slot's length in minutes
+     * @param count the most slots returned
+     * @return the slots as packed occurrences (see PackedTime), in order and not overlapping
+     */
+    public long[] findFreeSlots(Collection<String> ids, LocalDate startDate, LocalDate endDate, int length, int count) {
+        ArrayList<FreeBusyIndex> indexes = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            CalendarCore calendar = calendars_.get(id);
+            FreeBusyIndex index = freeBusy_.get(id);
+            if (calendar != null && index != null && index.getCore() == calendar) {
+                indexes.add(index);
+            }
+            else if (calendar != null) {
+                calendars_.computeIfPresent(id, (key, current) -> {
+                    indexes.add(getFreeBusy(key, current));
+                    return current;
+                });
+            }
+        }
+        return FreeBusyIndex.findFreeSlots(indexes, startDate, endDate, length, count);
+    }
+
+    /**
+     * Gets the index of a calendar's busy minutes, replacing an index made for a calendar the id
+     * no longer stands for. Must be called under the calendar's entry in calendars_
+     * @param id the calendar's id
+     * @param calendar the calendar the id stands for
+     * @return an index that follows the calendar
+     */
+    private FreeBusyIndex getFreeBusy(String id, CalendarCore calendar) {
+        FreeBusyIndex index = freeBusy_.get(id);
+        if (index == null || index.getCore() != calendar) {
+            if (index != null) {
+                index.detach();
+            }
+            index = FreeBusyIndex.of(calendar);
+            freeBusy_.put(id, index);
+        }
+        return index;
+    }
+
+    /**
+     * Runs a read on several calendars in parallel on the registry's pool
+     * @param ids the calendars' ids (unknown ids are skipped)
+     * @param reader the read
+     * @return the result for every known calendar, keyed by id in the order of ids
+     */
+    private <T> Map<String, T> query(Collection<String> ids, Function<CalendarCore, T> reader) {
+        ArrayList<String> known = new ArrayList<>(ids.size());
+        ArrayList<CalendarCore> calendars = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            CalendarCore calendar = calendars_.get(id);
+            if (calendar != null) {
+                known.add(id);
+                calendars.add(calendar);
+            }
+        }
+        //a parallel stream started inside the pool runs its tasks on that pool
+        List<T> results = pool_.submit(() -> calendars.parallelStream().map(reader).collect(Collectors.toList())).join();
+        LinkedHashMap<String, T> byId = new LinkedHashMap<>();
+        for (int i = 0; i < known.size(); i++) {
+            byId.put(known.get(i), results.get(i));
+        }
+        return byId;
+    }
+}
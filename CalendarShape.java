@@ -5,17 +5,36 @@
  */
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Implements the ShapeObject interface to create a calendar object
+ * Implements the ShapeObject interface to create a calendar object.
+ * The month grid is drawn once into an image that every paint copies; it is drawn again only when
+ * the month, the selected day, the position or the screen scale changes
  */
 public class CalendarShape implements ShapeObject{
+    public static final String PREVIOUS_MONTH = "previous month"; //target of the "<" arrow's region
+    public static final String NEXT_MONTH = "next month"; //target of the ">" arrow's region
+    private static final int SIZE = 230; //side of the cached image, covers the grid and its outline
+    private static final Color BACKGROUND = new Color(47, 47, 47);
+    private static final Color OTHER_MONTH = new Color(88, 88, 88);
+    private static final Color HIGHLIGHT = new Color(12, 187, 178);
+    private static final Font OTHER_MONTH_FONT = new Font("default", Font.BOLD, 12);
 
     private int x, y;
     private ArrayList<numberData> numberList;
     LocalDate currentLocalDate;
+    private BufferedImage grid; //the month grid as drawn for gridDate, gridX, gridY and gridScale
+    private LocalDate gridDate;
+    private int gridX, gridY;
+    private double gridScale;
+    private Font gridEndFont; //font and color the grid's drawing ends with, passed on to later shapes
+    private Color gridEndColor;
+    private List<HitRegion> hitRegions; //the numbers' regions followed by the arrows', null until drawn
+    private final Rectangle bounds = new Rectangle();
 
     /**
      * Constructor for CalendarShape
@@ -27,6 +46,7 @@ public class CalendarShape implements ShapeObject{
         this.x = x;
         this.y = y;
         this.currentLocalDate = currentLocalDate;
+        bounds.setBounds(x, y, SIZE, SIZE);
     }
 
     /**
@@ -46,6 +66,37 @@ public class CalendarShape implements ShapeObject{
     {
         x += dx;
         y += dy;
+        bounds.setBounds(x, y, SIZE, SIZE);
+        hitRegions = null;
+    }
+
+    /**
+     * Gets the area the calendar draws in
+     * @return the calendar's bounds (shared, must not be changed)
+     */
+    @Override
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Gets the clickable numbers and month arrows as they were last drawn. Each number's target
+     * is its numberData, the arrows' targets are PREVIOUS_MONTH and NEXT_MONTH
+     * @return the calendar's regions (empty until the calendar is drawn)
+     */
+    @Override
+    public List<HitRegion> getHitRegions() {
+        if (hitRegions == null && numberList != null) {
+            ArrayList<HitRegion> regions = new ArrayList<>(numberList.size() + 2);
+            for (numberData numData : numberList) {
+                regions.add(new HitRegion(numData.getBox().getBounds(), numData));
+            }
+            //the arrows are drawn at a fixed height, whatever the calendar's y
+            regions.add(new HitRegion(new Rectangle(168 + x, 14, 12, 12), PREVIOUS_MONTH));
+            regions.add(new HitRegion(new Rectangle(186 + x, 14, 12, 12), NEXT_MONTH));
+            hitRegions = regions;
+        }
+        return hitRegions == null ? List.of() : hitRegions;
     }
 
     /**
@@ -61,10 +112,40 @@ public class CalendarShape implements ShapeObject{
      * @param g2 graphics component
      */
     public void draw(Graphics2D g2) {
+        double scale = g2.getTransform().getScaleX();
+        if (grid == null || !currentLocalDate.equals(gridDate) || x != gridX || y != gridY || scale != gridScale) {
+            //draw at the screen's scale so the copy stays sharp on high density screens
+            int pixels = (int) Math.ceil(SIZE * scale);
+            grid = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D gridGraphics = grid.createGraphics();
+            gridGraphics.setRenderingHints(g2.getRenderingHints());
+            gridGraphics.setFont(g2.getFont());
+            gridGraphics.scale(scale, scale);
+            gridGraphics.translate(-x, -y);
+            drawGrid(gridGraphics);
+            gridEndFont = gridGraphics.getFont();
+            gridEndColor = gridGraphics.getColor();
+            gridGraphics.dispose();
+            gridDate = currentLocalDate;
+            gridX = x;
+            gridY = y;
+            gridScale = scale;
+        }
+        g2.drawImage(grid, x, y, SIZE, SIZE, null);
+        g2.setFont(gridEndFont);
+        g2.setColor(gridEndColor);
+    }
+
+    /**
+     * Draws the month grid and lays out the number list
+     * @param g2 graphics of the cached image
+     */
+    private void drawGrid(Graphics2D g2) {
         //initialize the number list to default
         numberList = new ArrayList<>();
+        hitRegions = null;
         Rectangle2D rectangle = new Rectangle(5 + x, 5 + y, 220, 220);
-        g2.setColor(new Color(47, 47, 47));
+        g2.setColor(BACKGROUND);
         g2.fill(rectangle);
         g2.draw(rectangle);
 
@@ -93,8 +174,8 @@ public class CalendarShape implements ShapeObject{
         for(int i = 0; i < 6; i++) {
             for(int k = 0; k < 7; k++) {
                 if(startingDay != 0 && startingDay != 7) {
-                    g2.setColor(new Color(88, 88, 88));
-                    g2.setFont(new Font("default", Font.BOLD, 12));
+                    g2.setColor(OTHER_MONTH);
+                    g2.setFont(OTHER_MONTH_FONT);
                     int previousMonthValue = previousMonthLength - startingDayCounter + counter;
                     //25 = offset , 30 = margins
                     g2.drawString(Integer.toString(previousMonthValue), (k * 25) + 30 + x, (i * 25) + 80 + y);
@@ -106,18 +187,18 @@ public class CalendarShape implements ShapeObject{
                     Rectangle2D box = new Rectangle(0,0);
                     g2.setColor(Color.white);
                     if(dayCounter == currentLocalDate.getDayOfMonth()) {
-                        g2.setColor(new Color(12, 187, 178));
+                        g2.setColor(HIGHLIGHT);
                         box = new Rectangle((k * 25) + 27 + x, (i * 25) + 65 + y, 20, 20);
                     }
                     g2.drawString(Integer.toString(dayCounter),(k * 25) + 30 + x, (i * 25) + 80 + y);
                     numberList.add(new numberData(dayCounter, new Rectangle((k * 25) + 27 + x, (i * 25) + 65 + y, 20, 20)));
-                    g2.setColor(new Color(12, 187, 178));
+                    g2.setColor(HIGHLIGHT);
                     g2.draw(box);
                     dayCounter++;
                     monthLength--;
                 }
                 else {
-                    g2.setColor(new Color(88, 88, 88));
+                    g2.setColor(OTHER_MONTH);
                     g2.drawString(Integer.toString(nextMonthDayCounter),(k * 25) + 30 + x, (i * 25) + 80 + y);
                     numberList.add(new numberData(nextMonthDayCounter, new Rectangle((k * 25) + 27 + x, (i * 25) + 65 + y, 20, 20)));
                     nextMonthDayCounter++;
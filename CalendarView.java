@@ -9,8 +9,10 @@ import javax.swing.event.ChangeListener;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 
@@ -19,6 +21,7 @@ import java.util.ArrayList;
  */
 public class CalendarView {
     private final CalendarDataModel calendarDataModel;
+    private final Clock clock; //the time shown by the clock
 
     private static final int WIDTH = 500;
     private static final int HEIGHT = 380;
@@ -28,7 +31,17 @@ public class CalendarView {
      * @param modelParam The calendar's data model
      */
     public CalendarView(CalendarDataModel modelParam) {
+        this(modelParam, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor for CalendarView with a time source for the clock
+     * @param modelParam The calendar's data model
+     * @param clockParam The source of the time shown by the clock
+     */
+    public CalendarView(CalendarDataModel modelParam, Clock clockParam) {
         calendarDataModel = modelParam;
+        clock = clockParam;
     }
 
     /**
@@ -38,8 +51,7 @@ public class CalendarView {
         //creating the calendar object to display
         CalendarShape calendarShape = new CalendarShape(0, -10, calendarDataModel.getDate());
         //creating the clock object to display
-        LocalTime currentLocalTime = LocalTime.now();
-        ClockShape clockShape = new ClockShape(50, currentLocalTime);
+        ClockShape clockShape = new ClockShape(50, clock);
         clockShape.translate(175,230);
 
         //Arraylist of shape objects in order to contain all the objects in one label
@@ -63,56 +75,51 @@ public class CalendarView {
                 int xClick = e.getX();
                 int yClick = e.getY();
 
-                for (numberData numData : data) {
-                    int minX = (int) numData.getBox().getX();
-                    int minY = (int) numData.getBox().getY();
-                    int maxX = (int) numData.getBox().getMaxX();
-                    int maxY = (int) numData.getBox().getMaxY();
-
-                    if (xClick >= minX && xClick <= maxX && yClick >= minY && yClick <= maxY) {
-                        //if the number clicked is a number from the previous month (first row, gray numbers)
-                        if (yClick <= data.get(0).getBox().getMaxY() && numData.getNumber() >= 20) {
-                            newDate = currentDate.minusMonths(1);
-                            newDate = LocalDate.of(newDate.getYear(), newDate.getMonth(), numData.getNumber());
-                            calendarDataModel.setDate(newDate);
-                            calendarObjectsLabel.repaint();
-                        }
-                        //if the number clicked is a number from the next month (rows 5/6, gray numbers)
-                        else if (yClick >= data.get(28).getBox().getY() && numData.getNumber() <= 15) {
-                            newDate = currentDate.plusMonths(1);
-                            newDate = LocalDate.of(newDate.getYear(), newDate.getMonth(), numData.getNumber());
-                            calendarDataModel.setDate(newDate);
-                            calendarObjectsLabel.repaint();
-                        }
-                        //if the number clicked is a day in the current month (white numbers)
-                        else {
-                            newDate = LocalDate.of(currentDate.getYear(), currentDate.getMonth(), numData.getNumber());
-                            calendarDataModel.setDate(newDate);
-                            calendarObjectsLabel.repaint();
-                        }
+                //the icon looks the click up in its grid of the shapes' clickable regions
+                HitRegion hit = icon.hitTest(xClick, yClick);
+                if (hit == null) {
+                    return;
+                }
+                if (hit.getTarget_() instanceof numberData numData) {
+                    //if the number clicked is a number from the previous month (first row, gray numbers)
+                    if (yClick <= data.get(0).getBox().getMaxY() && numData.getNumber() >= 20) {
+                        newDate = currentDate.minusMonths(1);
+                        newDate = LocalDate.of(newDate.getYear(), newDate.getMonth(), numData.getNumber());
+                        calendarDataModel.setDate(newDate);
+                        calendarObjectsLabel.repaint();
+                    }
+                    //if the number clicked is a number from the next month (rows 5/6, gray numbers)
+                    else if (yClick >= data.get(28).getBox().getY() && numData.getNumber() <= 15) {
+                        newDate = currentDate.plusMonths(1);
+                        newDate = LocalDate.of(newDate.getYear(), newDate.getMonth(), numData.getNumber());
+                        calendarDataModel.setDate(newDate);
+                        calendarObjectsLabel.repaint();
+                    }
+                    //if the number clicked is a day in the current month (white numbers)
+                    else {
+                        newDate = LocalDate.of(currentDate.getYear(), currentDate.getMonth(), numData.getNumber());
+                        calendarDataModel.setDate(newDate);
+                        calendarObjectsLabel.repaint();
                     }
                 }
-
                 //for "<" arrow on the calendar, go to previous month
-                if(xClick >= 168 && xClick <= 180 && yClick >= 14 && yClick <= 26) {
+                else if (CalendarShape.PREVIOUS_MONTH.equals(hit.getTarget_())) {
                     calendarDataModel.previousMonth();
                     calendarObjectsLabel.repaint();
                 }
-
                 //for ">" arrow on the calendar, go to next month
-                if(xClick >= 186 && xClick <= 198 && yClick >= 14 && yClick <= 26) {
+                else if (CalendarShape.NEXT_MONTH.equals(hit.getTarget_())) {
                     calendarDataModel.nextMonth();
                     calendarObjectsLabel.repaint();
                 }
             }
         });
 
-        //Timer to update the clock every second
-        Timer timer = new Timer(1000, e -> {
+        //Ticker to update the clock every second, repainting only the clock
+        ClockTicker clockTicker = new ClockTicker(clock, () -> {
             clockShape.updateClock();
-            calendarObjectsLabel.repaint();
+            calendarObjectsLabel.repaint(clockShape.getBounds());
         });
-        timer.start();
 
         //start of making the Today < > buttons code
         JButton todayButton = new JButton("Today");
@@ -210,10 +217,10 @@ public class CalendarView {
             inputForm.add(new JLabel("Event Date (YYYY-MM-DD):"));
             JTextField dateField = new JTextField();
             inputForm.add(dateField);
-            inputForm.add(new JLabel("Event Start Hour (0-23):"));
+            inputForm.add(new JLabel("Event Start Time (H or H:MM):"));
             JTextField startHourField = new JTextField();
             inputForm.add(startHourField);
-            inputForm.add(new JLabel("Event End Hour (0-23):"));
+            inputForm.add(new JLabel("Event End Time (H or H:MM):"));
             JTextField endHourField = new JTextField();
             inputForm.add(endHourField);
             do {
@@ -225,24 +232,25 @@ public class CalendarView {
                     try {
                         String name = nameField.getText();
                         LocalDate date = LocalDate.parse(dateField.getText());
-                        int startHour = Integer.parseInt(startHourField.getText());
-                        int endHour = Integer.parseInt(endHourField.getText());
-                        Event newEvent = new Event(name, date, startHour, endHour);
-                        //check for time conflict
-                        for (Event event : calendarDataModel.getEvents()) {
-                            if (event.conflictsWith(newEvent)) {
-                                JPanel panel = new JPanel();
-                                JOptionPane.showMessageDialog(panel, "Error: " + newEvent.getName_() +
-                                        " cannot be created because it conflicts with " + event.getName_() + ".",
-                                        "Error", JOptionPane.ERROR_MESSAGE);
-                                eventConflicts = true;
-                                wantsToRepeat = true;
-                                break;
+                        int startMinute = PackedTime.parseMinute(startHourField.getText());
+                        int endMinute = PackedTime.parseMinute(endHourField.getText());
+                        Event newEvent = new Event(name, date, TimeInterval.ofMinutes(startMinute, endMinute));
+                        //the model only adds the event if there is no time conflict
+                        Event conflict = calendarDataModel.addEvent(newEvent);
+                        if (conflict != null) {
+                            //suggest the first time that day the event would fit
+                            String suggestion = "";
+                            long[] slots = calendarDataModel.findFreeSlots(date, date, endMinute - startMinute, 1);
+                            if (slots.length > 0) {
+                                suggestion = " The first free time that day is "
+                                        + TimeInterval.ofPacked(PackedTime.interval(slots[0])) + ".";
                             }
-                        }
-                        if (!eventConflicts)  {
-                            calendarDataModel.addEvent(newEvent);
-
+                            JPanel panel = new JPanel();
+                            JOptionPane.showMessageDialog(panel, "Error: " + newEvent.getName_() +
+                                    " cannot be created because it conflicts with " + conflict.getName_() + "."
+                                    + suggestion, "Error", JOptionPane.ERROR_MESSAGE);
+                            eventConflicts = true;
+                            wantsToRepeat = true;
                         }
                     }
                     catch (NullPointerException exception) {
@@ -255,9 +263,9 @@ public class CalendarView {
                         JOptionPane.showMessageDialog(panel, "Error: invalid input for date.", "Error",
                                 JOptionPane.ERROR_MESSAGE);
                     }
-                    catch (NumberFormatException exception) {
+                    catch (IllegalArgumentException exception) { //not a time, or the end is not after the start
                         JPanel panel = new JPanel();
-                        JOptionPane.showMessageDialog(panel, "Error: invalid input for start and/or end hours.",
+                        JOptionPane.showMessageDialog(panel, "Error: invalid input for start and/or end times.",
                                 "Error", JOptionPane.ERROR_MESSAGE);
                     }
                 }
@@ -269,14 +277,26 @@ public class CalendarView {
         JButton fromFileButton = new JButton("From File");
         fromFileButton.addActionListener(e -> {
             JPanel inputForm = new JPanel();
-            inputForm.add(new JLabel("File Name (filename.txt):"));
+            inputForm.add(new JLabel("File Name (filename.txt or filename.ics):"));
             JTextField fileField = new JTextField(10);
             inputForm.add(fileField);
             int formValue = JOptionPane.showConfirmDialog(null, inputForm,
                     "Enter file name (with file extension):", JOptionPane.OK_CANCEL_OPTION);
             if (formValue == JOptionPane.OK_OPTION) {
                 String filename = fileField.getText();
-                calendarDataModel.addRecurringEvents(filename);
+                try {
+                    ImportReport report = calendarDataModel.addRecurringEvents(filename);
+                    if (!report.isClean()) {
+                        JPanel panel = new JPanel();
+                        JOptionPane.showMessageDialog(panel, "Some events could not be added:\n" + report,
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+                catch (IOException | InvalidPathException exception) {
+                    JPanel panel = new JPanel();
+                    JOptionPane.showMessageDialog(panel, "Error: invalid file name.", "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
             }
         });
 
@@ -308,14 +328,19 @@ public class CalendarView {
         darkButton.addActionListener(e -> calendarDataModel.setColorMode(new DarkMode()));
         //end of strategy pattern buttons
 
-        //start of textArea/scrollPane code
-        JTextArea textArea = new JTextArea(calendarDataModel.getTextAreaContent());
+        //start of event list/scrollPane code
+        //the list only renders the rows that are visible, fixed row sizes keep it from measuring the others
+        JList<String> eventList = new JList<>(calendarDataModel.getEventListModel());
+        eventList.setPrototypeCellValue("Recurring event: 10:00-11:00");
         Border border = BorderFactory.createLineBorder(new Color(12, 187, 178));
-        textArea.setBorder(BorderFactory.createCompoundBorder(border,
-                BorderFactory.createEmptyBorder(5,5,5,90)));
-        textArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        //end of textArea/scrollPane code
+        eventList.setBorder(BorderFactory.createCompoundBorder(border,
+                BorderFactory.createEmptyBorder(5,5,5,5)));
+        eventList.setBackground(calendarDataModel.getColorMode().getBackgroundColor());
+        JScrollPane scrollPane = new JScrollPane(eventList);
+        //the pane keeps its width, rows longer than it are scrolled to horizontally
+        scrollPane.setPreferredSize(scrollPane.getPreferredSize());
+        eventList.setPrototypeCellValue(calendarDataModel.getEventListModel().getLongestRow());
+        //end of event list/scrollPane code
 
         //start of frame code
         JFrame frame = new JFrame();
@@ -328,12 +353,21 @@ public class CalendarView {
         frame.setResizable(false);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setVisible(true);
+        clockTicker.pauseWhileHidden(frame);
+        clockTicker.start();
         //end of frame code
 
         ChangeListener changeListener = e -> {
-            textArea.setText(calendarDataModel.getTextAreaContent());
-            textArea.setForeground(calendarDataModel.getColorMode().getTextColor());
-            textArea.setBackground(calendarDataModel.getColorMode().getBackgroundColor());
+            //the list model is built off the event thread, only the latest view's model is shown
+            calendarDataModel.loadEventListModel(eventListModel -> {
+                if (eventList.getModel() != eventListModel) {
+                    eventList.setModel(eventListModel);
+                    eventList.setPrototypeCellValue(eventListModel.getLongestRow()); //cells fit the longest of the first rows
+                    eventList.ensureIndexIsVisible(0);
+                }
+            }, message -> JOptionPane.showMessageDialog(new JPanel(), message, "Error", JOptionPane.ERROR_MESSAGE));
+            eventList.setForeground(calendarDataModel.getColorMode().getTextColor());
+            eventList.setBackground(calendarDataModel.getColorMode().getBackgroundColor());
         };
         calendarDataModel.addChangeListener(changeListener);
     }
@@ -6,29 +6,45 @@
 import java.awt.*;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Line2D;
-import java.sql.Time;
-import java.text.SimpleDateFormat;
-import java.time.LocalTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import static java.awt.Color.RED;
 
 /**
- * Implements ShapeObject interface to create a clock object
+ * Implements ShapeObject interface to create a clock object.
+ * The time is read from an injectable java.time.Clock, and everything a tick changes (the hands'
+ * directions and the HH:mm:ss text) is worked out once per tick, so ticking and drawing allocate nothing
  */
 public class ClockShape implements ShapeObject{
+    private static final BasicStroke HOUR_STROKE = new BasicStroke(3f);
+    private static final BasicStroke MINUTE_STROKE = new BasicStroke(2f);
+    private static final BasicStroke SECOND_STROKE = new BasicStroke(1f);
+    private static final int SECONDS_IN_DAY = 24 * 60 * 60;
 
     private final int width;
+    private final Clock clock;
     private int hour, minute, second, x, y;
+    private final char[] timeText = new char[8]; //HH:mm:ss of the current time
+    private double hourSin, hourCos, minuteSin, minuteCos, secondSin, secondCos; //directions of the hands
+    private int offsetSeconds; //the clock zone's offset from UTC
+    private long offsetFromMillis = Long.MAX_VALUE; //the offset holds from this instant...
+    private long offsetUntilMillis = Long.MIN_VALUE; //...until this one
+    private final Ellipse2D.Double clockBody = new Ellipse2D.Double();
+    private final Line2D.Double hand = new Line2D.Double();
+    private final Rectangle bounds = new Rectangle();
 
     /**
-     * Constructor for ClockShape
+     * Constructor for ClockShape that reads the time from a clock
      * @param width the clock's width
-     * @param currentLocalTime the clock's initial time
+     * @param clock the source of the time, such as a fixed clock in tests
      */
-    public ClockShape(int width, LocalTime currentLocalTime) {
+    public ClockShape(int width, Clock clock) {
         this.width = width;
-        hour = currentLocalTime.getHour();
-        minute = currentLocalTime.getMinute();
-        second = currentLocalTime.getSecond();
+        this.clock = clock;
+        updateClock();
+        updateBounds();
     }
 
     /**
@@ -37,36 +53,29 @@ public class ClockShape implements ShapeObject{
      */
     @Override
     public void draw(Graphics2D g2) {
-        double xPosition, yPosition, angle;
+        double centerX = x + width/(float)2;
+        double centerY = y + width/(float)2;
         //draw clock body
-        Ellipse2D.Double clockBody = new Ellipse2D.Double(x, y, width, width);
+        clockBody.setFrame(x, y, width, width);
         g2.draw(clockBody);
 
         //draw hour hand
-        g2.setStroke(new BasicStroke(3f));
-        //angle for current hour + minutes (between next hour): 2pi/12 * hour + minutes
-        angle = (Math.PI/6) * ((hour % 12) + minute/(float)60);
-        xPosition = (x + width/(float)2) + (0.5 * width/2 * Math.sin(angle));
-        yPosition = (y + width/(float)2) - (0.5 * width/2 * Math.cos(angle));
-        g2.draw(new Line2D.Double(x + width/(float)2, y + width/(float)2, xPosition, yPosition));
+        g2.setStroke(HOUR_STROKE);
+        hand.setLine(centerX, centerY, centerX + (0.5 * width/2 * hourSin), centerY - (0.5 * width/2 * hourCos));
+        g2.draw(hand);
 
-        //draw minute hand: 2pi/60 * minutes
-        g2.setStroke(new BasicStroke(2f));
-        angle = (Math.PI/30) * minute;
-        xPosition = (x + width/(float)2) + (0.9 * width/2 * Math.sin(angle));
-        yPosition = (y + width/(float)2) - (0.9 * width/2 * Math.cos(angle));
-        g2.draw(new Line2D.Double(x + width/(float)2, y + width/(float)2, xPosition, yPosition));
+        //draw minute hand
+        g2.setStroke(MINUTE_STROKE);
+        hand.setLine(centerX, centerY, centerX + (0.9 * width/2 * minuteSin), centerY - (0.9 * width/2 * minuteCos));
+        g2.draw(hand);
 
-        //draw second hand: 2pi/60 * seconds
-        g2.setStroke(new BasicStroke(1f));
+        //draw second hand
+        g2.setStroke(SECOND_STROKE);
         g2.setColor(RED);
-        angle = (Math.PI/30) * second;
-        xPosition = (x + width/(float)2) + (width/(float)2 * Math.sin(angle));
-        yPosition = (y + width/(float)2) - (width/(float)2 * Math.cos(angle));
-        g2.draw(new Line2D.Double(x + width/(float)2, y + width/(float)2, xPosition, yPosition));
+        hand.setLine(centerX, centerY, centerX + (width/(float)2 * secondSin), centerY - (width/(float)2 * secondCos));
+        g2.draw(hand);
 
-        String time = this.displayTime();
-        g2.drawString(time, x + 2, y + 65);
+        g2.drawChars(timeText, 0, timeText.length, x + 2, y + 65);
     }
 
     /**
@@ -78,6 +87,16 @@ public class ClockShape implements ShapeObject{
     public void translate(double dx, double dy) {
         x += dx;
         y += dy;
+        updateBounds();
+    }
+
+    /**
+     * Gets the area the clock draws in, for repainting only the clock
+     * @return the clock's bounds (shared, must not be changed)
+     */
+    @Override
+    public Rectangle getBounds() {
+        return bounds;
     }
 
     /**
@@ -85,18 +104,76 @@ public class ClockShape implements ShapeObject{
      * @return the clock's time
      */
     public String displayTime() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("HH:mm:ss");
-        Time time = new Time(hour, minute, second);
-        return dateFormat.format(time);
+        return new String(timeText);
     }
 
     /**
-     * Updates the clock's hours, minutes, and seconds
+     * Updates the clock's hours, minutes, and seconds from its time source
      */
     public void updateClock() {
-        LocalTime currentLocalTime = LocalTime.now();
-        hour = currentLocalTime.getHour();
-        minute = currentLocalTime.getMinute();
-        second = currentLocalTime.getSecond();
+        long millis = clock.millis();
+        if (millis < offsetFromMillis || millis >= offsetUntilMillis) {
+            updateOffset(millis);
+        }
+        setTime(Math.floorMod(Math.floorDiv(millis, 1000) + offsetSeconds, SECONDS_IN_DAY));
+    }
+
+    /**
+     * Sets the time and works out the hands and text for it
+     * @param secondOfDay seconds after midnight
+     */
+    private void setTime(int secondOfDay) {
+        hour = secondOfDay / 3600;
+        minute = secondOfDay / 60 % 60;
+        second = secondOfDay % 60;
+        //angle for current hour + minutes (between next hour): 2pi/12 * hour + minutes
+        double angle = (Math.PI/6) * ((hour % 12) + minute/(float)60);
+        hourSin = Math.sin(angle);
+        hourCos = Math.cos(angle);
+        //2pi/60 * minutes
+        angle = (Math.PI/30) * minute;
+        minuteSin = Math.sin(angle);
+        minuteCos = Math.cos(angle);
+        //2pi/60 * seconds
+        angle = (Math.PI/30) * second;
+        secondSin = Math.sin(angle);
+        secondCos = Math.cos(angle);
+        putTwoDigits(0, hour);
+        timeText[2] = ':';
+        putTwoDigits(3, minute);
+        timeText[5] = ':';
+        putTwoDigits(6, second);
+    }
+
+    /**
+     * Writes a number from 0 to 99 into the time text as two digits
+     * @param index the index of the first digit
+     * @param value the number
+     */
+    private void putTwoDigits(int index, int value) {
+        timeText[index] = (char) ('0' + value / 10);
+        timeText[index + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * Looks up the clock zone's offset at an instant and how long it holds, so the lookup
+     * is only repeated when a daylight saving time change is crossed
+     * @param millis the instant in milliseconds since 1970-01-01T00:00Z
+     */
+    private void updateOffset(long millis) {
+        ZoneRules rules = clock.getZone().getRules();
+        Instant instant = Instant.ofEpochMilli(millis);
+        offsetSeconds = rules.getOffset(instant).getTotalSeconds();
+        ZoneOffsetTransition previous = rules.previousTransition(instant);
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        offsetFromMillis = previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * 1000;
+        offsetUntilMillis = next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000;
+    }
+
+    /**
+     * Updates the clock's bounds: the body and the time text under it
+     */
+    private void updateBounds() {
+        bounds.setBounds(x - 2, y - 2, Math.max(width, 70) + 4, 75);
     }
 }
@@ -0,0 +1,104 @@
+/**
+ * ClockTicker class that drives the clock shape. Ticks are scheduled for
+ * just after each second boundary of the clock's time source instead of
+ * every 1000 ms, so they do not drift, and they stop while the window is
+ * minimized or hidden.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import javax.swing.Timer;
+import java.awt.Window;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.Clock;
+
+/**
+ * Runs a task on the event dispatch thread once per second of a clock
+ */
+public class ClockTicker {
+    private static final int SLACK_MILLIS = 5; //fire a little after the boundary, never just before it
+
+    private final Clock clock_;
+    private final Runnable tick_;
+    private final Timer timer_; //one-shot, scheduled again after every tick
+
+    /**
+     * Constructor for class ClockTicker
+     * @param clock the source of the time
+     * @param tick the task run once per second, on the event dispatch thread
+     */
+    public ClockTicker(Clock clock, Runnable tick) {
+        clock_ = clock;
+        tick_ = tick;
+        timer_ = new Timer(0, e -> {
+            tick_.run();
+            schedule();
+        });
+        timer_.setRepeats(false);
+    }
+
+    /**
+     * Starts ticking, running the task right away so a resumed clock is not a second behind
+     */
+    public void start() {
+        if (!timer_.isRunning()) {
+            tick_.run();
+            schedule();
+        }
+    }
+
+    /**
+     * Stops ticking
+     */
+    public void stop() {
+        timer_.stop();
+    }
+
+    /**
+     * Checks if the ticker is running
+     * @return true if a tick is scheduled
+     */
+    public boolean isRunning() {
+        return timer_.isRunning();
+    }
+
+    /**
+     * Stops ticking while a window is minimized or hidden and starts again when it is back
+     * @param window the window showing the clock
+     */
+    public void pauseWhileHidden(Window window) {
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent e) {
+                stop();
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                start();
+            }
+        });
+        window.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                stop();
+            }
+
+            @Override
+            public void componentShown(ComponentEvent e) {
+                start();
+            }
+        });
+    }
+
+    /**
+     * Schedules the next tick for just after the next second boundary
+     */
+    private void schedule() {
+        int delay = 1000 - (int) Math.floorMod(clock_.millis(), 1000L) + SLACK_MILLIS;
+        timer_.setInitialDelay(delay);
+        timer_.restart();
+    }
+}
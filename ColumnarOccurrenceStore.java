@@ -0,0 +1,463 @@
+/**
+ * ColumnarOccurrenceStore class that keeps every occurrence of the calendar
+ * in off-heap columns: the packed day and time interval, an id into a
+ * deduplicated string table of names and an id into the table of events.
+ * No object is created per occurrence, so very large calendars keep the heap
+ * (and garbage collection pauses) small.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Stores occurrences sorted by their packed value in direct buffers. New occurrences go to a
+ * small sorted on-heap delta that is merged into the columns when it fills up.
+ * Only one thread may change the store at a time.
+ */
+public class ColumnarOccurrenceStore {
+    private static final int MIN_DELTA = 1 << 12;
+    private static final int MAX_DELTA = 1 << 16;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / 8; //a direct buffer holds at most 2GB of keys
+
+    private LongBuffer keys_; //packed occurrences, sorted
+    private IntBuffer nameIds_;
+    private IntBuffer eventIds_;
+    private int size_; //occurrences in the columns
+
+    private long[] deltaKeys_; //occurrences added since the last merge, sorted
+    private int[] deltaNameIds_;
+    private int[] deltaEventIds_;
+    private int deltaSize_;
+
+    private final ArrayList<String> names_; //name id -> name
+    private final HashMap<String, Integer> nameTable_; //name -> name id
+    private final ArrayList<Event> events_; //event id -> event
+
+    /**
+     * Constructor for class ColumnarOccurrenceStore
+     */
+    public ColumnarOccurrenceStore() {
+        allocateColumns(1024);
+        deltaKeys_ = new long[MIN_DELTA];
+        deltaNameIds_ = new int[MIN_DELTA];
+        deltaEventIds_ = new int[MIN_DELTA];
+        names_ = new ArrayList<>();
+        nameTable_ = new HashMap<>();
+        events_ = new ArrayList<>();
+    }
+
+    /**
+     * Adds every occurrence of an event
+     * @param event the event being added
+     */
+    public void add(Event event) {
+        int eventId = events_.size();
+        events_.add(event);
+        int nameId = nameId(event.getName_());
+        int interval = event.getTimeInterval_().getPacked();
+        event.getDays().forEach(day -> {
+            if (deltaSize_ == deltaKeys_.length) {
+                if (deltaSize_ >= deltaLimit()) {
+                    merge();
+                }
+                else {
+                    growDelta(deltaSize_ * 2);
+                }
+            }
+            insertIntoDelta(PackedTime.pack(day, interval), nameId, eventId);
+        });
+    }
+
+    /**
+     * Adds the occurrences of many events with one sort and one merge
+     * @param events the events being added
+     */
+    public void addAll(List<Event> events) {
+        merge();
+        long count = 0;
+        for (Event event : events) {
+            count += event.getDays().count();
+        }
+        if (count > MAX_CAPACITY - size_) {
+            throw new IllegalStateException("Too many occurrences for one store: " + (size_ + count)
+                    + ", at most " + MAX_CAPACITY + " fit");
+        }
+        growDelta((int) count);
+        for (Event event : events) {
+            int eventId = events_.size();
+            events_.add(event);
+            int nameId = nameId(event.getName_());
+            int interval = event.getTimeInterval_().getPacked();
+            event.getDays().forEach(day -> {
+                deltaKeys_[deltaSize_] = PackedTime.pack(day, interval);
+                deltaNameIds_[deltaSize_] = nameId;
+                deltaEventIds_[deltaSize_] = eventId;
+                deltaSize_++;
+            });
+        }
+        sort(deltaKeys_, deltaNameIds_, deltaEventIds_, 0, deltaSize_ - 1);
+        merge();
+        deltaKeys_ = new long[MIN_DELTA];
+        deltaNameIds_ = new int[MIN_DELTA];
+        deltaEventIds_ = new int[MIN_DELTA];
+    }
+
+    /**
+     * Finds an event whose occurrence overlaps with an occurrence of another event
+     * @param event the event being checked
+     * @return the conflicting event, or null if there is none
+     */
+    public Event findConflict(Event event) {
+        int interval = event.getTimeInterval_().getPacked();
+        int[] found = {-1};
+        event.getDays().takeWhile(day -> found[0] < 0).forEach(day -> forEachInRange(day, day,
+                (packed, nameId, eventId) -> {
+                    if (found[0] < 0 && PackedTime.overlaps(PackedTime.interval(packed), interval)) {
+                        found[0] = eventId;
+                    }
+                }));
+        return found[0] < 0 ? null : events_.get(found[0]);
+    }
+
+    /**
+     * Visits the occurrences between two days (both inclusive), ordered by day and time
+     * @param fromDay the first epoch day
+     * @param toDay the last epoch day
+     * @param visitor receives every occurrence
+     */
+    public void forEachInRange(long fromDay, long toDay, OccurrenceVisitor visitor) {
+        LongBuffer keys = keys_;
+        IntBuffer nameIds = nameIds_;
+        IntBuffer eventIds = eventIds_;
+        long from = PackedTime.pack(fromDay, 0);
+        long to = PackedTime.pack(toDay + 1, 0);
+        int main = lowerBound(keys, size_, from);
+        int delta = lowerBound(deltaKeys_, deltaSize_, from);
+        while (true) {
+            long mainKey = main < size_ ? keys.get(main) : Long.MAX_VALUE;
+            long deltaKey = delta < deltaSize_ ? deltaKeys_[delta] : Long.MAX_VALUE;
+            if (Math.min(mainKey, deltaKey) >= to) {
+                return;
+            }
+            if (mainKey <= deltaKey) {
+                visitor.visit(mainKey, nameIds.get(main), eventIds.get(main));
+                main++;
+            }
+            else {
+                visitor.visit(deltaKey, deltaNameIds_[delta], deltaEventIds_[delta]);
+                delta++;
+            }
+        }
+    }
+
+    /**
+     * Gets the events occurring on a day
+     * @param epochDay a day counted from 1970-01-01
+     * @return the day's events ordered by start time
+     */
+    public List<Event> eventsOn(long epochDay) {
+        ArrayList<Event> events = new ArrayList<>();
+        forEachInRange(epochDay, epochDay, (packed, nameId, eventId) -> events.add(events_.get(eventId)));
+        return events;
+    }
+
+    /**
+     * Counts the occurrences on a day
+     * @param epochDay a day counted from 1970-01-01
+     * @return the number of occurrences on that day
+     */
+    public int countOn(long epochDay) {
+        long from = PackedTime.pack(epochDay, 0);
+        long to = PackedTime.pack(epochDay + 1, 0);
+        return lowerBound(keys_, size_, to) - lowerBound(keys_, size_, from)
+                + lowerBound(deltaKeys_, deltaSize_, to) - lowerBound(deltaKeys_, deltaSize_, from);
+    }
+
+    /**
+     * Appends the occurrences of a day as "name: H:MM-H:MM" lines
+     * @param text the text being built
+     * @param epochDay a day counted from 1970-01-01
+     */
+    public void appendDay(StringBuilder text, long epochDay) {
+        forEachInRange(epochDay, epochDay, (packed, nameId, eventId) -> {
+            text.append(names_.get(nameId)).append(": ");
+            PackedTime.appendInterval(text, PackedTime.interval(packed));
+            text.append("\n");
+        });
+    }
+
+    /**
+     * Gets a name from the string table
+     * @param nameId the name's id
+     * @return the name
+     */
+    public String getName(int nameId) {
+        return names_.get(nameId);
+    }
+
+    /**
+     * Gets an event from the event table
+     * @param eventId the event's id
+     * @return the event
+     */
+    public Event getEvent(int eventId) {
+        return events_.get(eventId);
+    }
+
+    /**
+     * Gets the number of occurrences in the store
+     * @return the number of occurrences
+     */
+    public int size() {
+        return size_ + deltaSize_;
+    }
+
+    /**
+     * Gets the id of a name, adding it to the string table if it is new
+     * @param name an event's name
+     * @return the name's id
+     */
+    private int nameId(String name) {
+        Integer id = nameTable_.get(name);
+        if (id == null) {
+            id = names_.size();
+            names_.add(name);
+            nameTable_.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the size the delta may reach before it is merged into the columns
+     * @return the delta's limit
+     */
+    private int deltaLimit() {
+        return Math.max(MIN_DELTA, Math.min(MAX_DELTA, size_ / 64));
+    }
+
+    /**
+     * Inserts an occurrence into the sorted delta (which has room for it)
+     * @param key the packed occurrence
+     * @param nameId the event's name id
+     * @param eventId the event's id
+     */
+    private void insertIntoDelta(long key, int nameId, int eventId) {
+        int position = upperBound(deltaKeys_, deltaSize_, key);
+        int moved = deltaSize_ - position;
+        System.arraycopy(deltaKeys_, position, deltaKeys_, position + 1, moved);
+        System.arraycopy(deltaNameIds_, position, deltaNameIds_, position + 1, moved);
+        System.arraycopy(deltaEventIds_, position, deltaEventIds_, position + 1, moved);
+        deltaKeys_[position] = key;
+        deltaNameIds_[position] = nameId;
+        deltaEventIds_[position] = eventId;
+        deltaSize_++;
+    }
+
+    /**
+     * Makes room for more occurrences in the delta
+     * @param extra the number of occurrences that must fit
+     */
+    private void growDelta(int extra) {
+        int capacity = deltaSize_ + extra;
+        if (capacity > deltaKeys_.length) {
+            long[] keys = new long[capacity];
+            int[] nameIds = new int[capacity];
+            int[] eventIds = new int[capacity];
+            System.arraycopy(deltaKeys_, 0, keys, 0, deltaSize_);
+            System.arraycopy(deltaNameIds_, 0, nameIds, 0, deltaSize_);
+            System.arraycopy(deltaEventIds_, 0, eventIds, 0, deltaSize_);
+            deltaKeys_ = keys;
+            deltaNameIds_ = nameIds;
+            deltaEventIds_ = eventIds;
+        }
+    }
+
+    /**
+     * Merges the sorted delta into new columns
+     */
+    private void merge() {
+        if (deltaSize_ == 0) {
+            return;
+        }
+        LongBuffer keys = keys_;
+        IntBuffer nameIds = nameIds_;
+        IntBuffer eventIds = eventIds_;
+        int size = size_;
+        int mergedSize = size + deltaSize_;
+        if (mergedSize > keys.capacity()) {
+            allocateColumns(Math.max(mergedSize, (int) Math.min(MAX_CAPACITY, keys.capacity() * 2L)));
+        }
+        //merge from the back, so the columns can be merged in place when they did not grow
+        int main = size - 1;
+        int delta = deltaSize_ - 1;
+        for (int target = mergedSize - 1; target >= 0; target--) {
+            if (delta < 0 || (main >= 0 && keys.get(main) > deltaKeys_[delta])) {
+                keys_.put(target, keys.get(main));
+                nameIds_.put(target, nameIds.get(main));
+                eventIds_.put(target, eventIds.get(main));
+                main--;
+            }
+            else {
+                keys_.put(target, deltaKeys_[delta]);
+                nameIds_.put(target, deltaNameIds_[delta]);
+                eventIds_.put(target, deltaEventIds_[delta]);
+                delta--;
+            }
+        }
+        size_ = mergedSize;
+        deltaSize_ = 0;
+    }
+
+    /**
+     * Replaces the columns with empty direct buffers
+     * @param capacity the number of occurrences the columns can hold
+     * @throws IllegalStateException if the key column would be larger than a direct buffer can be
+     */
+    private void allocateColumns(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Too many occurrences for one store: " + capacity
+                    + ", at most " + MAX_CAPACITY + " fit");
+        }
+        keys_ = ByteBuffer.allocateDirect(capacity * 8).order(ByteOrder.nativeOrder()).asLongBuffer();
+        nameIds_ = ByteBuffer.allocateDirect(capacity * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+        eventIds_ = ByteBuffer.allocateDirect(capacity * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * Finds the first key that is not less than a value
+     * @param keys sorted keys
+     * @param size the number of keys
+     * @param value the value searched for
+     * @return the key's index, or size if there is none
+     */
+    private static int lowerBound(LongBuffer keys, int size, long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys.get(middle) < value) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first key that is not less than a value
+     * @param keys sorted keys
+     * @param size the number of keys
+     * @param value the value searched for
+     * @return the key's index, or size if there is none
+     */
+    private static int lowerBound(long[] keys, int size, long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < value) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first key that is greater than a value
+     * @param keys sorted keys
+     * @param size the number of keys
+     * @param value the value searched for
+     * @return the key's index, or size if there is none
+     */
+    private static int upperBound(long[] keys, int size, long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] <= value) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sorts keys (and the ids next to them) with an in-place quicksort
+     * @param keys the keys being sorted
+     * @param nameIds the name ids, moved with their keys
+     * @param eventIds the event ids, moved with their keys
+     * @param low the first index
+     * @param high the last index
+     */
+    private static void sort(long[] keys, int[] nameIds, int[] eventIds, int low, int high) {
+        while (low < high) {
+            if (high - low < 16) {
+                for (int i = low + 1; i <= high; i++) {
+                    for (int j = i; j > low && keys[j - 1] > keys[j]; j--) {
+                        swap(keys, nameIds, eventIds, j - 1, j);
+                    }
+                }
+                return;
+            }
+            long pivot = keys[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, nameIds, eventIds, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            //recurse into the smaller half so the stack stays shallow
+            if (j - low < high - i) {
+                sort(keys, nameIds, eventIds, low, j);
+                low = i;
+            }
+            else {
+                sort(keys, nameIds, eventIds, i, high);
+                high = j;
+            }
+        }
+    }
+
+    /**
+     * Swaps two entries of the key and id arrays
+     * @param keys the keys
+     * @param nameIds the name ids
+     * @param eventIds the event ids
+     * @param a the first index
+     * @param b the second index
+     */
+    private static void swap(long[] keys, int[] nameIds, int[] eventIds, int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int nameId = nameIds[a];
+        nameIds[a] = nameIds[b];
+        nameIds[b] = nameId;
+        int eventId = eventIds[a];
+        eventIds[a] = eventIds[b];
+        eventIds[b] = eventId;
+    }
+}
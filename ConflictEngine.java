@@ -0,0 +1,134 @@
+/**
+ * ConflictEngine class that answers whether an event collides with the
+ * events already in the calendar, and with which one. Each day keeps a
+ * bitmap of the hours that are taken, so most checks never look at an event.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects conflicts using per-day hour occupancy bitmaps backed by the calendar's event index.
+ * The bitmaps are coarse (an hour is taken if any minute of it is), the exact check is done on
+ * the packed minutes of the events found on a day.
+ * Checks may run on any thread; adding is left to the calendar's single writer
+ */
+public class ConflictEngine {
+    private static final int SCAN_BIT = 1 << 31; //set when the hours of an event cannot be put in a bitmap
+
+    private final EventIndex eventIndex_; //used to find who a new event collides with
+    private final ConcurrentHashMap<Long, Integer> occupancy_; //epoch day -> bitmap of the hours that are taken
+
+    /**
+     * Constructor for class ConflictEngine
+     * @param eventIndex the index of the events already in the calendar
+     */
+    public ConflictEngine(EventIndex eventIndex) {
+        eventIndex_ = eventIndex;
+        occupancy_ = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Marks the hours of an event as taken on every day it occurs on
+     * @param event an event that was added to the calendar
+     */
+    public void add(Event event) {
+        int hours = hourMask(event.getTimeInterval_());
+        int bits = hours == 0 ? SCAN_BIT : hours;
+        event.getDays().forEach(day -> occupancy_.merge(day, bits, (a, b) -> a | b));
+    }
+
+    /**
+     * Marks the hours of many events as taken, updating each day's bitmap once
+     * @param events events that were added to the calendar
+     */
+    public void addAll(List<Event> events) {
+        HashMap<Long, Integer> added = new HashMap<>();
+        for (Event event : events) {
+            int hours = hourMask(event.getTimeInterval_());
+            int bits = hours == 0 ? SCAN_BIT : hours;
+            event.getDays().forEach(day -> added.merge(day, bits, (a, b) -> a | b));
+        }
+        added.forEach((day, bits) -> occupancy_.merge(day, bits, (a, b) -> a | b));
+    }
+
+    /**
+     * Checks if an event collides with an event in the calendar
+     * @param event the event being checked
+     * @return true if the event conflicts
+     */
+    public boolean conflicts(Event event) {
+        return findConflict(event) != null;
+    }
+
+    /**
+     * Finds the first event in the calendar that an event collides with
+     * @param event the event being checked
+     * @return the conflicting event, or null if there is none
+     */
+    public Event findConflict(Event event) {
+        int hours = hourMask(event.getTimeInterval_());
+        int probe = hours == 0 ? ~0 : hours | SCAN_BIT;
+        return event.getDays()
+                .filter(day -> (occupancy_.getOrDefault(day, 0) & probe) != 0)
+                .mapToObj(day -> findConflictOn(day, event))
+                .filter(e -> e != null)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Finds every event in the calendar that an event collides with
+     * @param event the event being checked
+     * @return the conflicting events (empty if there are none)
+     */
+    public ArrayList<Event> findConflicts(Event event) {
+        ArrayList<Event> conflicts = new ArrayList<>();
+        int hours = hourMask(event.getTimeInterval_());
+        int probe = hours == 0 ? ~0 : hours | SCAN_BIT;
+        event.getDays()
+                .filter(day -> (occupancy_.getOrDefault(day, 0) & probe) != 0)
+                .forEach(day -> {
+                    for (Event e : eventIndex_.getEventsOn(day)) {
+                        if (e.getTimeInterval_().overLapsWith(event.getTimeInterval_()) && !conflicts.contains(e)) {
+                            conflicts.add(e);
+                        }
+                    }
+                });
+        return conflicts;
+    }
+
+    /**
+     * Looks through one day's events for one that overlaps with an event
+     * @param day the epoch day being checked
+     * @param event the event being checked
+     * @return the conflicting event, or null if there is none
+     */
+    private Event findConflictOn(long day, Event event) {
+        for (Event e : eventIndex_.getEventsOn(day)) {
+            if (e.getTimeInterval_().overLapsWith(event.getTimeInterval_())) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the bitmap of the hours a time interval touches
+     * @param timeInterval a time interval
+     * @return bit n is set if any minute of hour n is covered, 0 if the interval is empty or out of range
+     */
+    private static int hourMask(TimeInterval timeInterval) {
+        int startMinute = timeInterval.getStartMinute_();
+        int endMinute = timeInterval.getEndMinute_();
+        if (endMinute > PackedTime.MINUTES_IN_DAY || startMinute >= endMinute) {
+            return 0;
+        }
+        int start = startMinute / 60;
+        int end = (endMinute + 59) / 60;
+        return (int) (((1L << end) - 1) & ~((1L << start) - 1));
+    }
+}
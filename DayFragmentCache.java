@@ -0,0 +1,102 @@
+/**
+ * DayFragmentCache class that keeps the rendered text of each day, so the
+ * text area content can be put together from fragments that were already
+ * built and only the days touched by a new event have to be rendered again.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+
+/**
+ * Caches the rendered fragment of each epoch day, dropping the least recently used days when full.
+ * A day is rendered while holding the cache's lock, so a fragment rendered from old events
+ * cannot be put back after the writer's thread dropped it
+ */
+public class DayFragmentCache {
+    private static final int MAX_DAYS = 1 << 14; //about 45 years of days
+
+    private final LinkedHashMap<Long, String> fragments_; //epoch day -> rendered text of that day
+    private long generation_; //increases every time fragments of the watched days are dropped
+    private long watchedStartDay_; //first day of the text last put together from fragments
+    private long watchedEndDay_ = -1; //last day of that text (inclusive), none before it is put together
+
+    /**
+     * Constructor for class DayFragmentCache
+     */
+    public DayFragmentCache() {
+        fragments_ = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > MAX_DAYS;
+            }
+        };
+    }
+
+    /**
+     * Gets the fragment of a day, rendering and caching it if it is not cached yet
+     * @param epochDay a day counted from 1970-01-01
+     * @param renderer renders the day when it is not cached
+     * @return the day's fragment
+     */
+    public synchronized String get(long epochDay, LongFunction<String> renderer) {
+        String fragment = fragments_.get(epochDay);
+        if (fragment == null) {
+            fragment = renderer.apply(epochDay);
+            fragments_.put(epochDay, fragment);
+        }
+        return fragment;
+    }
+
+    /**
+     * Drops the fragments of the given days. The generation only changes if one of them is watched,
+     * so adding an event outside the days on screen does not make their text be put together again
+     * @param epochDays the days whose events changed
+     */
+    public synchronized void invalidate(LongStream epochDays) {
+        if (fragments_.isEmpty()) {
+            return;
+        }
+        boolean watched = false;
+        PrimitiveIterator.OfLong days = epochDays.iterator();
+        while (days.hasNext()) {
+            long day = days.nextLong();
+            fragments_.remove(day);
+            watched |= day >= watchedStartDay_ && day <= watchedEndDay_;
+        }
+        if (watched) {
+            generation_++;
+        }
+    }
+
+    /**
+     * Starts watching the days that text is about to be put together from, in place of the days watched before
+     * @param startDay the first day
+     * @param endDay the last day (inclusive)
+     * @return the generation the text is put together at
+     */
+    public synchronized long watch(long startDay, long endDay) {
+        watchedStartDay_ = startDay;
+        watchedEndDay_ = endDay;
+        return generation_;
+    }
+
+    /**
+     * Drops every fragment
+     */
+    public synchronized void clear() {
+        fragments_.clear();
+        generation_++;
+    }
+
+    /**
+     * Gets the cache's generation, so text put together from fragments can tell if it is out of date
+     * @return a number that increases every time fragments of the watched days are dropped
+     */
+    public synchronized long getGeneration() {
+        return generation_;
+    }
+}
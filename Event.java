@@ -6,20 +6,26 @@
  */
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Scanner;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  * Creates an event object that consists of a name, date and time.
+ * Recurring events are stored as a rule (first day, last day and the days of the week
+ * they repeat on) instead of a list of dates, so dates are only produced when a range is iterated.
  */
 public class Event implements Comparable {
     private final String name_;
     private final TimeInterval timeInterval_;
-    private ArrayList<LocalDate> dates_;
+    private final long startDay_; //epoch day the rule starts on (inclusive)
+    private final long endDay_; //epoch day the rule ends on (inclusive)
+    private final int dayMask_; //bit n is set if the event repeats on DayOfWeek n (1 = Monday ... 7 = Sunday)
+    private final long firstDay_; //epoch day of the first occurrence, Long.MAX_VALUE if there is none
+    private final long sortKey_; //first occurrence packed with the time interval (see PackedTime)
 
     public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
     public static final String DAY_ABBREVS = " MTWHFAS";
+    public static final int ALL_DAYS = 0b11111110;
 
     /**
      * Constructor for class Event
@@ -29,10 +35,17 @@ public class Event implements Comparable {
      * @param endHour The event's ending hour
      */
     public Event(String name, LocalDate date, int startHour, int endHour) { //one-time events
-        name_ = name;
-        timeInterval_ = new TimeInterval(startHour, endHour);
-        dates_ = new ArrayList<>();
-        dates_.add(date);
+        this(name, date, new TimeInterval(startHour, endHour));
+    }
+
+    /**
+     * Constructor for class Event that takes a time interval, which can be set to the minute
+     * @param name The event's name
+     * @param date The event's date
+     * @param timeInterval The event's time interval
+     */
+    public Event(String name, LocalDate date, TimeInterval timeInterval) { //one-time events
+        this(name, timeInterval, date.toEpochDay(), date.toEpochDay(), ALL_DAYS);
     }
 
     /**
@@ -40,35 +53,88 @@ public class Event implements Comparable {
      * @param fileLine A line from a text file
      */
     public Event(String fileLine) { //recurring events
-        Scanner scanner = new Scanner(fileLine);
-        scanner.useDelimiter(";");
-        name_ = scanner.next();
-        int year = Integer.parseInt(scanner.next());
-        int startMonth = Integer.parseInt(scanner.next());
-        int endMonth = Integer.parseInt(scanner.next());
-        String recurringDays = scanner.next();
-        int startHour = Integer.parseInt(scanner.next());
-        int endHour = Integer.parseInt(scanner.next());
+        this(EventFileParser.parseLine(fileLine));
+    }
+
+    /**
+     * Constructor for class Event that takes the fields of a file line
+     * @param name The event's name
+     * @param year The year the event recurs in
+     * @param startMonth The first month the event recurs in
+     * @param endMonth The month the event stops recurring in (not included)
+     * @param dayMask The days of the week the event recurs on (bit n stands for DayOfWeek n)
+     * @param startHour The event's starting hour
+     * @param endHour The event's ending hour
+     */
+    public Event(String name, int year, int startMonth, int endMonth, int dayMask, int startHour, int endHour) {
+        name_ = name;
         timeInterval_ = new TimeInterval(startHour, endHour);
+        dayMask_ = dayMask;
 
-        //getting values of recurring days of the week
-        ArrayList<Integer> recurringDayValues = new ArrayList<>();
-        char[] recurringDaysArray = recurringDays.toCharArray();
-        for (char day : recurringDaysArray) {
-            recurringDayValues.add(DAY_ABBREVS.indexOf(day));
-        }
+        //the event recurs from the first day of the start month up to (not including) the end month
+        startDay_ = LocalDate.of(year, startMonth, 1).toEpochDay();
+        endDay_ = LocalDate.of(year, endMonth, 1).toEpochDay() - 1;
+        firstDay_ = firstOccurrenceFrom(startDay_);
+        sortKey_ = sortKey(firstDay_, timeInterval_);
+    }
 
-        //calculating and adding dates the event recurs
-        dates_ = new ArrayList<>();
-        LocalDate iteratorDate = LocalDate.of(year, startMonth, 1);
-        LocalDate endDate = LocalDate.of(year, endMonth, 1);
-        while (!iteratorDate.isEqual(endDate)) {
-            if (recurringDayValues.contains(iteratorDate.getDayOfWeek().getValue())) {
-                dates_.add(iteratorDate);
-            }
-            iteratorDate = iteratorDate.plusDays(1);
-        }
-        Collections.sort(dates_);
+    /**
+     * Constructor for class Event that takes the recurrence rule directly
+     * @param name The event's name
+     * @param timeInterval The event's time interval
+     * @param startDay The epoch day the rule starts on (inclusive)
+     * @param endDay The epoch day the rule ends on (inclusive)
+     * @param dayMask The days of the week the event recurs on (bit n stands for DayOfWeek n)
+     */
+    public Event(String name, TimeInterval timeInterval, long startDay, long endDay, int dayMask) {
+        name_ = name;
+        timeInterval_ = timeInterval;
+        startDay_ = startDay;
+        endDay_ = endDay;
+        dayMask_ = dayMask;
+        firstDay_ = firstOccurrenceFrom(startDay_);
+        sortKey_ = sortKey(firstDay_, timeInterval_);
+    }
+
+    /**
+     * Copies an event
+     * @param other the event being copied
+     */
+    private Event(Event other) {
+        name_ = other.getName_();
+        timeInterval_ = other.getTimeInterval_();
+        startDay_ = other.getStartDay_();
+        endDay_ = other.getEndDay_();
+        dayMask_ = other.getDayMask_();
+        firstDay_ = other.getFirstDay_();
+        sortKey_ = other.getSortKey();
+    }
+
+    /**
+     * Gets the day of the week of an epoch day
+     * @param epochDay a day counted from 1970-01-01
+     * @return the DayOfWeek value (1 = Monday ... 7 = Sunday)
+     */
+    public static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L) + 1; //1970-01-01 was a Thursday
+    }
+
+    /**
+     * Checks if the event occurs on a day
+     * @param epochDay a day counted from 1970-01-01
+     * @return a true/false boolean
+     */
+    public boolean occursOn(long epochDay) {
+        return epochDay >= startDay_ && epochDay <= endDay_ && (dayMask_ & (1 << dayOfWeek(epochDay))) != 0;
+    }
+
+    /**
+     * Checks if the event occurs on a date
+     * @param date a specified date
+     * @return a true/false boolean
+     */
+    public boolean occursOn(LocalDate date) {
+        return occursOn(date.toEpochDay());
     }
 
     /**
@@ -77,14 +143,20 @@ public class Event implements Comparable {
      * @return a true/false boolean
      */
     public boolean conflictsWith(Event other) {
-        boolean datesIntersect = false;
-        for (LocalDate date : other.getDates_()) {
-            if (dates_.contains(date)) {
-                datesIntersect = true;
-                break;
+        if (!timeInterval_.overLapsWith(other.getTimeInterval_())) {
+            return false;
+        }
+        long from = Math.max(startDay_, other.getStartDay_());
+        long to = Math.min(endDay_, other.getEndDay_());
+        if (to - from >= 6) { //a full week is shared, so any common weekday is a common date
+            return (dayMask_ & other.getDayMask_()) != 0;
+        }
+        for (long day = from; day <= to; day++) {
+            if (occursOn(day) && other.occursOn(day)) {
+                return true;
             }
         }
-        return timeInterval_.overLapsWith(other.getTimeInterval_()) && datesIntersect;
+        return false;
     }
 
     /**
@@ -104,11 +176,72 @@ public class Event implements Comparable {
     }
 
     /**
-     * Gets the list of dates
-     * @return list of type LocalDate
+     * Gets the epoch day the event's rule starts on
+     * @return the first day of the rule (inclusive)
+     */
+    public long getStartDay_() {
+        return startDay_;
+    }
+
+    /**
+     * Gets the epoch day the event's rule ends on
+     * @return the last day of the rule (inclusive)
      */
-    public ArrayList<LocalDate> getDates_() {
-        return dates_;
+    public long getEndDay_() {
+        return endDay_;
+    }
+
+    /**
+     * Gets the days of the week the event repeats on
+     * @return a mask where bit n stands for DayOfWeek n
+     */
+    public int getDayMask_() {
+        return dayMask_;
+    }
+
+    /**
+     * Gets the epoch day of the event's first occurrence
+     * @return the first occurrence, or Long.MAX_VALUE if the event never occurs
+     */
+    public long getFirstDay_() {
+        return firstDay_;
+    }
+
+    /**
+     * Gets the key events are sorted by: the first occurrence packed with the time interval,
+     * so comparing two events is a single long comparison
+     * @return the packed first occurrence, or Long.MAX_VALUE if the event never occurs
+     */
+    public long getSortKey() {
+        return sortKey_;
+    }
+
+    /**
+     * Lazily lists the dates the event occurs on between two dates (both inclusive)
+     * @param startDate the first day of the range
+     * @param endDate the last day of the range
+     * @return a stream of the event's dates in ascending order
+     */
+    public Stream<LocalDate> getDates_(LocalDate startDate, LocalDate endDate) {
+        return getDays(startDate.toEpochDay(), endDate.toEpochDay()).mapToObj(LocalDate::ofEpochDay);
+    }
+
+    /**
+     * Lazily lists the epoch days the event occurs on between two days (both inclusive)
+     * @param from the first day of the range
+     * @param to the last day of the range
+     * @return a stream of epoch days in ascending order
+     */
+    public LongStream getDays(long from, long to) {
+        return LongStream.rangeClosed(Math.max(from, startDay_), Math.min(to, endDay_)).filter(this::occursOn);
+    }
+
+    /**
+     * Lists every epoch day the event occurs on
+     * @return a stream of epoch days in ascending order
+     */
+    public LongStream getDays() {
+        return getDays(startDay_, endDay_);
     }
 
     /**
@@ -127,15 +260,30 @@ public class Event implements Comparable {
      */
     @Override
     public int compareTo(Object o) {
-        Event other = (Event) o;
-        if (dates_.get(0).isBefore(other.getDates_().get(0))) {
-            return -1;
-        }
-        else if (dates_.get(0).isAfter(other.getDates_().get(0))) {
-            return 1;
-        }
-        else {
-            return timeInterval_.compareTo(other.getTimeInterval_());
+        return Long.compare(sortKey_, ((Event) o).getSortKey());
+    }
+
+    /**
+     * Packs a first occurrence and time interval into a sort key
+     * @param firstDay the epoch day of the first occurrence
+     * @param timeInterval the time interval
+     * @return the sort key
+     */
+    private static long sortKey(long firstDay, TimeInterval timeInterval) {
+        return firstDay == Long.MAX_VALUE ? Long.MAX_VALUE : PackedTime.pack(firstDay, timeInterval.getPacked());
+    }
+
+    /**
+     * Finds the first day on or after a given day that the event occurs on
+     * @param from the day the search starts from
+     * @return the epoch day, or Long.MAX_VALUE if there is none
+     */
+    private long firstOccurrenceFrom(long from) {
+        for (long day = from; day <= endDay_ && day < from + 7; day++) {
+            if (occursOn(day)) {
+                return day;
+            }
         }
+        return Long.MAX_VALUE;
     }
 }
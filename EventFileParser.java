@@ -0,0 +1,295 @@
+/**
+ * EventFileParser class that reads files in the recurring event format
+ * (name;year;startMonth;endMonth;days;startHour;endHour;). The file is
+ * memory mapped and split into chunks at line boundaries, the chunks are
+ * parsed in parallel and the fields are read straight from the bytes.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * Parses a recurring event file into events, keeping track of invalid lines and throughput
+ */
+public class EventFileParser {
+    private static final long MIN_CHUNK_SIZE = 1 << 20; //files smaller than this are parsed in one chunk
+    private static final long MAX_CHUNK_SIZE = 1 << 26; //keeps every mapped region well under 2GB
+
+    private final Path path_;
+    private final ArrayList<Integer> invalidLines_;
+    private int lineCount_;
+    private long elapsedNanos_;
+
+    /**
+     * Constructor for class EventFileParser
+     * @param path the recurring event file
+     */
+    public EventFileParser(Path path) {
+        path_ = path;
+        invalidLines_ = new ArrayList<>();
+    }
+
+    /**
+     * Parses every line of the file
+     * @return the events in the order of their lines
+     * @throws IOException if the file cannot be opened or read
+     */
+    public ArrayList<Event> parse() throws IOException {
+        long startTime = System.nanoTime();
+        ArrayList<Event> events = new ArrayList<>();
+        invalidLines_.clear();
+        lineCount_ = 0;
+        try (FileChannel channel = FileChannel.open(path_, StandardOpenOption.READ)) {
+            long[] bounds = splitAtLines(channel);
+            Chunk[] chunks = new Chunk[bounds.length - 1];
+            IntStream.range(0, chunks.length).parallel().forEach(i -> {
+                try {
+                    chunks[i] = parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, bounds[i],
+                            bounds[i + 1] - bounds[i]));
+                }
+                catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+            for (Chunk chunk : chunks) {
+                events.addAll(chunk.events);
+                for (int invalidLine : chunk.invalidLines) {
+                    invalidLines_.add(lineCount_ + invalidLine);
+                }
+                lineCount_ += chunk.lineCount;
+            }
+        }
+        catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        elapsedNanos_ = System.nanoTime() - startTime;
+        return events;
+    }
+
+    /**
+     * Parses one line of the recurring event format
+     * @param line a line from a text file
+     * @return the event on that line
+     * @throws IllegalArgumentException if the line does not have all the fields
+     */
+    public static Event parseLine(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        Event event = parseLine(ByteBuffer.wrap(bytes), 0, bytes.length);
+        if (event == null) {
+            throw new IllegalArgumentException("Invalid event line: " + line);
+        }
+        return event;
+    }
+
+    /**
+     * Gets the number of lines read by the last parse
+     * @return the number of lines
+     */
+    public int getLineCount() {
+        return lineCount_;
+    }
+
+    /**
+     * Gets the lines that could not be read by the last parse
+     * @return a list of line numbers (starting at 1)
+     */
+    public ArrayList<Integer> getInvalidLines() {
+        return invalidLines_;
+    }
+
+    /**
+     * Gets the throughput of the last parse
+     * @return the number of lines read per second
+     */
+    public double getLinesPerSecond() {
+        return elapsedNanos_ == 0 ? 0 : lineCount_ * 1_000_000_000.0 / elapsedNanos_;
+    }
+
+    /**
+     * Finds the chunk boundaries of the file, moving each boundary to the start of a line
+     * @param channel the open file
+     * @return the start of every chunk followed by the size of the file
+     * @throws IOException if the file cannot be read
+     */
+    private static long[] splitAtLines(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int processors = Runtime.getRuntime().availableProcessors();
+        long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, size / processors + 1));
+        ArrayList<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(256);
+        long position = chunkSize;
+        while (position < size) {
+            //move forward to the byte after the next line break
+            long lineStart = -1;
+            long probePosition = position;
+            while (lineStart < 0 && probePosition < size) {
+                probe.clear();
+                int read = channel.read(probe, probePosition);
+                for (int i = 0; i < read && lineStart < 0; i++) {
+                    if (probe.get(i) == '\n') {
+                        lineStart = probePosition + i + 1;
+                    }
+                }
+                probePosition += read;
+            }
+            if (lineStart < 0 || lineStart >= size) {
+                break;
+            }
+            bounds.add(lineStart);
+            position = lineStart + chunkSize;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Parses every line of one chunk
+     * @param buffer the chunk's bytes
+     * @return the chunk's events, line count and invalid lines (relative to the chunk)
+     */
+    private static Chunk parseChunk(MappedByteBuffer buffer) {
+        Chunk chunk = new Chunk();
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            chunk.lineCount++;
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            Event event = null;
+            try {
+                event = parseLine(buffer, lineStart, contentEnd);
+            }
+            catch (RuntimeException exception) { //dates that do not exist, such as month 13
+                event = null;
+            }
+            if (event == null) {
+                chunk.invalidLines.add(chunk.lineCount);
+            }
+            else {
+                chunk.events.add(event);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * Parses the fields of one line without creating strings for anything but the name
+     * @param buffer the bytes holding the line
+     * @param start the index of the line's first byte
+     * @param end the index after the line's last byte
+     * @return the event, or null if a field is missing or not a number, or the hours are not 0-24 with the start first
+     */
+    private static Event parseLine(ByteBuffer buffer, int start, int end) {
+        int nameEnd = indexOf(buffer, start, end);
+        if (nameEnd < 0 || nameEnd == start) {
+            return null;
+        }
+        byte[] nameBytes = new byte[nameEnd - start];
+        buffer.get(start, nameBytes);
+        String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+        int[] numbers = new int[6]; //year, startMonth, endMonth, days, startHour, endHour
+        int fieldStart = nameEnd + 1;
+        for (int field = 0; field < numbers.length; field++) {
+            int fieldEnd = indexOf(buffer, fieldStart, end);
+            if (fieldEnd < 0) {
+                fieldEnd = end; //the last ';' is optional
+            }
+            if (fieldEnd == fieldStart) {
+                return null;
+            }
+            numbers[field] = field == 3 ? readDayMask(buffer, fieldStart, fieldEnd)
+                    : readNumber(buffer, fieldStart, fieldEnd);
+            if (numbers[field] < 0) {
+                return null;
+            }
+            fieldStart = fieldEnd + 1;
+            if (fieldStart > end && field < numbers.length - 1) {
+                return null;
+            }
+        }
+        if (numbers[4] >= numbers[5] || numbers[5] > 24) {
+            return null; //hours past 24 would wrap around when packed
+        }
+        return new Event(name, numbers[0], numbers[1], numbers[2], numbers[3], numbers[4], numbers[5]);
+    }
+
+    /**
+     * Finds the next ';' in a range of bytes
+     * @param buffer the bytes being searched
+     * @param start the first index searched
+     * @param end the index after the last one searched
+     * @return the index of the ';', or -1 if there is none
+     */
+    private static int indexOf(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == ';') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a non-negative decimal number from a range of bytes
+     * @param buffer the bytes holding the number
+     * @param start the index of the first digit
+     * @param end the index after the last digit
+     * @return the number, or -1 if the range is not a number
+     */
+    private static int readNumber(ByteBuffer buffer, int start, int end) {
+        if (end - start > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Reads the days field (letters from Event.DAY_ABBREVS) as a mask of the days of the week
+     * @param buffer the bytes holding the days
+     * @param start the index of the first letter
+     * @param end the index after the last letter
+     * @return the day mask (letters that are not days are skipped)
+     */
+    private static int readDayMask(ByteBuffer buffer, int start, int end) {
+        int mask = 0;
+        for (int i = start; i < end; i++) {
+            int dayValue = Event.DAY_ABBREVS.indexOf(buffer.get(i));
+            if (dayValue > 0) {
+                mask |= 1 << dayValue;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Holds what was parsed from one chunk of the file
+     */
+    private static class Chunk {
+        private final ArrayList<Event> events = new ArrayList<>();
+        private final ArrayList<Integer> invalidLines = new ArrayList<>();
+        private int lineCount;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * EventIndex class that buckets the calendar's events by the epoch day
+ * they occur on, so the data model can look up a day or a range of days
+ * without walking every event in the calendar.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Maps each epoch day to the events occurring on it, sorted by start time.
+ * Buckets hold references to the events, the dates themselves are never materialized.
+ * A bucket is an array that is replaced (never changed) when an event is added, so
+ * other threads can read the index while one thread adds to it.
+ */
+public class EventIndex {
+    private static final Event[] EMPTY = new Event[0];
+
+    private final ConcurrentSkipListMap<Long, Event[]> buckets_; //epoch day -> events on that day
+    private volatile long occurrenceCount_; //references in all buckets, changed by the single writer only
+
+    /**
+     * Constructor for class EventIndex
+     */
+    public EventIndex() {
+        buckets_ = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Adds an event to the bucket of every day it occurs on. Only one thread may add at a time
+     * @param event the event being indexed
+     */
+    public void add(Event event) {
+        event.getDays().forEach(epochDay -> {
+            Event[] bucket = buckets_.getOrDefault(epochDay, EMPTY);
+            //keep the bucket ordered by start time so days never need sorting when read
+            int position = bucket.length;
+            int start = event.getTimeInterval_().getStartMinute_();
+            while (position > 0 && bucket[position - 1].getTimeInterval_().getStartMinute_() > start) {
+                position--;
+            }
+            Event[] newBucket = new Event[bucket.length + 1];
+            System.arraycopy(bucket, 0, newBucket, 0, position);
+            newBucket[position] = event;
+            System.arraycopy(bucket, position, newBucket, position + 1, bucket.length - position);
+            buckets_.put(epochDay, newBucket);
+            occurrenceCount_++;
+        });
+    }
+
+    /**
+     * Adds many events, replacing each bucket they occur on once instead of once per event.
+     * The buckets end up as if the events had been added one at a time. Only one thread may add at a time
+     * @param events the events being indexed
+     */
+    public void addAll(List<Event> events) {
+        HashMap<Long, ArrayList<Event>> added = new HashMap<>();
+        for (Event event : events) {
+            event.getDays().forEach(epochDay -> added.computeIfAbsent(epochDay, day -> new ArrayList<>()).add(event));
+        }
+        Comparator<Event> byStart = Comparator.comparingInt(e -> e.getTimeInterval_().getStartMinute_());
+        added.forEach((epochDay, dayEvents) -> {
+            dayEvents.sort(byStart); //stable, so events starting together keep the order they were given in
+            Event[] bucket = buckets_.getOrDefault(epochDay, EMPTY);
+            Event[] newBucket = new Event[bucket.length + dayEvents.size()];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < newBucket.length; k++) {
+                //an event already in the bucket goes first when the start times are equal, as it would with add
+                if (j == dayEvents.size() || (i < bucket.length && byStart.compare(bucket[i], dayEvents.get(j)) <= 0)) {
+                    newBucket[k] = bucket[i++];
+                }
+                else {
+                    newBucket[k] = dayEvents.get(j++);
+                }
+            }
+            buckets_.put(epochDay, newBucket);
+            occurrenceCount_ += dayEvents.size();
+        });
+    }
+
+    /**
+     * Gets the events occurring on a day
+     * @param date a specified date
+     * @return the day's events ordered by start time (empty if there are none)
+     */
+    public List<Event> getEventsOn(LocalDate date) {
+        return getEventsOn(date.toEpochDay());
+    }
+
+    /**
+     * Gets the events occurring on an epoch day
+     * @param epochDay a day counted from 1970-01-01
+     * @return the day's events ordered by start time (empty if there are none)
+     */
+    public List<Event> getEventsOn(long epochDay) {
+        Event[] bucket = buckets_.get(epochDay);
+        return bucket == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(bucket));
+    }
+
+    /**
+     * Counts the events occurring on an epoch day
+     * @param epochDay a day counted from 1970-01-01
+     * @return the number of events on that day
+     */
+    public int countOn(long epochDay) {
+        Event[] bucket = buckets_.get(epochDay);
+        return bucket == null ? 0 : bucket.length;
+    }
+
+    /**
+     * Gets the non-empty day buckets between two dates (both inclusive)
+     * @param startDate the first day of the range
+     * @param endDate the last day of the range
+     * @return the buckets keyed by epoch day, in ascending order (the arrays must not be changed)
+     */
+    public NavigableMap<Long, Event[]> getRange(LocalDate startDate, LocalDate endDate) {
+        return getRange(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    /**
+     * Gets the non-empty day buckets between two epoch days (both inclusive)
+     * @param fromDay the first day of the range
+     * @param toDay the last day of the range
+     * @return the buckets keyed by epoch day, in ascending order (the arrays must not be changed)
+     */
+    public NavigableMap<Long, Event[]> getRange(long fromDay, long toDay) {
+        return buckets_.subMap(fromDay, true, toDay, true);
+    }
+
+    /**
+     * Gets the number of occurrences in the index
+     * @return the number of event references in all buckets
+     */
+    public long getOccurrenceCount() {
+        return occurrenceCount_;
+    }
+
+    /**
+     * Gets the number of days that have at least one event
+     * @return the number of non-empty buckets
+     */
+    public int size() {
+        return buckets_.size();
+    }
+}
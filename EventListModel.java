@@ -0,0 +1,159 @@
+/**
+ * EventListModel class that backs the list of events shown next to the
+ * calendar. Only the number of events of each day is counted up front; the
+ * rows of a day are rendered when the list asks for them, and only a bounded
+ * number of rendered days is kept, so scrolling over years of events uses
+ * the same memory as scrolling over a week.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import javax.swing.AbstractListModel;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Lists a range of days as rows: each day has a date row, one row per event and an empty row,
+ * the same lines the text area content has
+ */
+public class EventListModel extends AbstractListModel<String> {
+    private static final long serialVersionUID = 1L;
+    private static final String WIDEST_TIMES = ": 10:00-11:00"; //a row's times are at most this wide
+    private static final int CACHED_DAYS = 256; //rendered days kept for scrolling back and forth
+    private static final int SIZED_ROWS = 1024; //rows from the top the cells are sized from, a few pages
+
+    private final CalendarCore core_;
+    private final long startDay_;
+    private final long endDay_;
+    private final long version_; //version of the calendar the rows were counted at
+    private final int[] firstRows_; //index of each day's date row, followed by the number of rows
+    private final LinkedHashMap<Long, String[]> rows_; //epoch day -> rendered rows of that day
+    private final StringBuilder row_; //reused to render each row
+    private final String longestRow_; //as long as the longest of the first rows, for sizing the list's cells
+
+    /**
+     * Constructor for class EventListModel
+     * @param core the calendar's core
+     * @param startDate the first day listed
+     * @param endDate the last day listed
+     * @throws CancellationException if the thread is interrupted while the days are counted
+     */
+    public EventListModel(CalendarCore core, LocalDate startDate, LocalDate endDate) {
+        core_ = core;
+        startDay_ = startDate.toEpochDay();
+        endDay_ = Math.max(startDay_ - 1, endDate.toEpochDay());
+        version_ = core.getVersion();
+        CalendarMetrics.OperationEvent metrics = CalendarMetrics.begin();
+        int days = (int) (endDay_ - startDay_ + 1);
+        firstRows_ = new int[days + 1];
+        for (int i = 0; i < days; i++) {
+            //a model built on a background thread stops as soon as a newer view cancels it
+            if ((i & 255) == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("The event list was cancelled");
+            }
+            firstRows_[i + 1] = firstRows_[i] + 2 + core.getEventCountOn(startDay_ + i);
+        }
+        CalendarMetrics.EVENT_LIST_MODEL.end(metrics, days);
+        longestRow_ = findLongestRow();
+        row_ = new StringBuilder();
+        rows_ = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String[]> eldest) {
+                return size() > CACHED_DAYS;
+            }
+        };
+    }
+
+    /**
+     * Gets the number of rows
+     * @return the number of rows
+     */
+    @Override
+    public int getSize() {
+        return firstRows_[firstRows_.length - 1];
+    }
+
+    /**
+     * Gets a row, rendering its day if the day is not cached
+     * @param index the row's index
+     * @return the row's text
+     */
+    @Override
+    public String getElementAt(int index) {
+        //find the last day whose first row is at or before the index
+        int low = 0;
+        int high = firstRows_.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (firstRows_[middle] <= index) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        String[] rows = rows_.computeIfAbsent(startDay_ + low, this::renderDay);
+        int row = index - firstRows_[low];
+        //a day that changed after the rows were counted may have a different number of rows
+        return row < rows.length ? rows[row] : "";
+    }
+
+    /**
+     * Gets a row as long as the longest of the first rows, so the list can give every cell the same size
+     * without measuring each row; longer rows further down are scrolled to horizontally
+     * @return the longest event name followed by the widest times, or a date row if no event is listed
+     */
+    public String getLongestRow() {
+        return longestRow_;
+    }
+
+    /**
+     * Checks if the model still lists a range of days as the calendar is now
+     * @param startDate the first day of the range
+     * @param endDate the last day of the range
+     * @return true if the range and the calendar's version are the same
+     */
+    public boolean isCurrent(LocalDate startDate, LocalDate endDate) {
+        return startDate.toEpochDay() == startDay_ && endDate.toEpochDay() == endDay_
+                && core_.getVersion() == version_;
+    }
+
+    /**
+     * Finds the longest name among the occurrences of the first SIZED_ROWS rows, so sizing the cells
+     * costs the same however many days and events there are
+     * @return the longest name followed by the widest times, or a date row if none of the days has an event
+     */
+    private String findLongestRow() {
+        int lastDay = 0;
+        while (lastDay + 1 < firstRows_.length - 1 && firstRows_[lastDay + 1] < SIZED_ROWS) {
+            lastDay++;
+        }
+        String[] longestName = new String[1];
+        if (firstRows_.length > 1) {
+            core_.forEachOccurrence(startDay_, startDay_ + lastDay, occurrence -> {
+                if (longestName[0] == null || occurrence.getName().length() > longestName[0].length()) {
+                    longestName[0] = occurrence.getName();
+                }
+            });
+        }
+        return longestName[0] == null ? LocalDate.ofEpochDay(startDay_).toString() : longestName[0] + WIDEST_TIMES;
+    }
+
+    /**
+     * Renders the rows of a day straight from the occurrences, so each row is the only object created
+     * @param epochDay a day counted from 1970-01-01
+     * @return the date row, a row per event and an empty row
+     */
+    private String[] renderDay(long epochDay) {
+        ArrayList<String> rows = new ArrayList<>(core_.getEventCountOn(epochDay) + 2);
+        rows.add(LocalDate.ofEpochDay(epochDay).toString());
+        core_.forEachOccurrence(epochDay, epochDay, occurrence -> {
+            row_.setLength(0);
+            rows.add(occurrence.appendTo(row_).toString());
+        });
+        rows.add("");
+        return rows.toArray(new String[0]);
+    }
+}
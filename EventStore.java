@@ -0,0 +1,355 @@
+/**
+ * EventStore class that persists a calendar's events on disk, so the calendar
+ * reopens without parsing its source files again. Every added event is appended
+ * to a binary log, and the log is periodically folded into a snapshot.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Stores events in an append-only log of checksummed records plus a snapshot file.
+ * Log: [long generation] followed by records of [int payload length][int CRC32 of payload][payload]
+ * Snapshot: [int MAGIC][int VERSION][long generation of the last log it includes][int event count][payload]...
+ * Payload: [byte ADD_MINUTES][short name length][name bytes][long startDay][long endDay][int dayMask]
+ * [int packed interval]. Version 1 files used ADD payloads with [int startHour][int endHour] instead
+ */
+public class EventStore implements AutoCloseable {
+    private static final int MAGIC = 0x43414C53; //"CALS"
+    private static final int VERSION = 2;
+    private static final byte ADD = 1; //times in whole hours (version 1)
+    private static final byte ADD_MINUTES = 2; //packed start and end minute
+    private static final int LOG_HEADER = 8;
+    private static final int RECORD_HEADER = 8;
+    private static final int SNAPSHOT_HEADER = 20;
+    private static final int SNAPSHOT_EVERY = 100_000; //log records between snapshots
+
+    private final Path logPath_;
+    private final Path snapshotPath_;
+    private FileChannel log_;
+    private long logGeneration_; //increases every time the log is folded into a snapshot
+    private long snapshotGeneration_; //generation of the last log included in the snapshot, -1 if none
+    private int recordsSinceSnapshot_;
+    private boolean torn_; //a failed append could not be cut off, so records after it would be lost on load
+
+    /**
+     * Constructor for class EventStore
+     * @param directory the directory holding the log and snapshot files
+     */
+    public EventStore(Path directory) {
+        logPath_ = directory.resolve("events.log");
+        snapshotPath_ = directory.resolve("events.snapshot");
+    }
+
+    /**
+     * Loads the snapshot and replays the log into a new core, cutting off a torn record at the end
+     * of the log. The returned core appends every event added to it from now on
+     * @return the restored calendar core
+     * @throws IOException if the files cannot be read or created
+     */
+    public CalendarCore load() throws IOException {
+        return load(new CalendarCore());
+    }
+
+    /**
+     * Loads the snapshot and replays the log into an empty core, such as a columnar one
+     * @param core the core the events are restored into
+     * @return the same core, which appends every event added to it from now on
+     * @throws IOException if the files cannot be read or created
+     */
+    public CalendarCore load(CalendarCore core) throws IOException {
+        Files.createDirectories(logPath_.getParent());
+        ArrayList<Event> events = new ArrayList<>();
+        snapshotGeneration_ = -1;
+        torn_ = false;
+        if (Files.exists(snapshotPath_)) {
+            readSnapshot(events);
+        }
+        log_ = FileChannel.open(logPath_, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER);
+        if (log_.read(header, 0) < LOG_HEADER || header.getLong(0) <= snapshotGeneration_) {
+            //new log, torn header, or a log that was already folded into the snapshot before a crash
+            resetLog(snapshotGeneration_ + 1);
+        }
+        else {
+            logGeneration_ = header.getLong(0);
+            long validLength = replayLog(events);
+            if (validLength < log_.size()) {
+                log_.truncate(validLength);
+                log_.force(true);
+            }
+            log_.position(validLength);
+        }
+
+        core.restore(events);
+        core.setStore(this);
+        if (recordsSinceSnapshot_ >= SNAPSHOT_EVERY) {
+            snapshot(core.getEvents());
+        }
+        return core;
+    }
+
+    /**
+     * Appends events to the log, flushing them to disk before returning. The calendar appends the
+     * events it accepts before it adds them, so an event is only added once it is on disk
+     * @param events the events being added to the calendar
+     * @throws IOException if the log cannot be written; the part of the records that was written is cut off
+     */
+    public void append(List<Event> events) throws IOException {
+        if (torn_) {
+            throw new IOException("The event log ends in a record that could not be cut off: " + logPath_);
+        }
+        long start = log_.position();
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            CRC32 crc = new CRC32();
+            for (Event event : events) {
+                byte[] payload = encode(event);
+                if (buffer.remaining() < RECORD_HEADER + payload.length) {
+                    writeFully(buffer);
+                    if (buffer.capacity() < RECORD_HEADER + payload.length) {
+                        buffer = ByteBuffer.allocate(RECORD_HEADER + payload.length);
+                    }
+                }
+                crc.reset();
+                crc.update(payload);
+                buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            }
+            writeFully(buffer);
+            log_.force(false);
+        }
+        catch (IOException exception) {
+            //a torn record would make the next load stop there, dropping every record appended after it
+            try {
+                log_.truncate(start);
+                log_.position(start);
+            }
+            catch (IOException rollback) {
+                torn_ = true;
+                exception.addSuppressed(rollback);
+            }
+            throw exception;
+        }
+        recordsSinceSnapshot_ += events.size();
+    }
+
+    /**
+     * Folds the log into a snapshot once it has grown too long. Called after appended events were
+     * added to the calendar, so the snapshot holds them
+     * @param core the calendar
+     * @throws IOException if the snapshot cannot be written; the log then still holds every event
+     */
+    public void snapshotIfDue(CalendarCore core) throws IOException {
+        if (recordsSinceSnapshot_ >= SNAPSHOT_EVERY) {
+            snapshot(core.getEvents());
+        }
+    }
+
+    /**
+     * Writes every event to a new snapshot and empties the log. The snapshot is written to a
+     * temporary file first and moved into place, so a crash leaves the old snapshot and log intact
+     * @param events all the events in the calendar
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot(List<Event> events) throws IOException {
+        Path temporary = snapshotPath_.resolveSibling("events.snapshot.tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(logGeneration_).putInt(events.size());
+            for (Event event : events) {
+                byte[] payload = encode(event);
+                if (buffer.remaining() < payload.length) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    buffer.clear();
+                    if (buffer.capacity() < payload.length) {
+                        buffer = ByteBuffer.allocate(payload.length);
+                    }
+                }
+                buffer.put(payload);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, snapshotPath_, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        snapshotGeneration_ = logGeneration_;
+        resetLog(logGeneration_ + 1);
+    }
+
+    /**
+     * Closes the log
+     * @throws IOException if the log cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (log_ != null) {
+            log_.close();
+        }
+    }
+
+    /**
+     * Reads every event in the snapshot
+     * @param events the list the events are added to
+     * @throws IOException if the snapshot cannot be read or is not a snapshot
+     */
+    private void readSnapshot(ArrayList<Event> events) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotPath_, StandardOpenOption.READ)) {
+            ByteBuffer buffer = readFully(channel, snapshotPath_);
+            if (buffer.remaining() < SNAPSHOT_HEADER || buffer.getInt() != MAGIC || buffer.getInt() > VERSION) {
+                throw new IOException("Not an event snapshot: " + snapshotPath_);
+            }
+            snapshotGeneration_ = buffer.getLong();
+            int count = buffer.getInt();
+            events.ensureCapacity(events.size() + count);
+            for (int i = 0; i < count; i++) {
+                events.add(decode(buffer));
+            }
+        }
+    }
+
+    /**
+     * Replays the log's records until the end of the file or the first torn or corrupt record
+     * @param events the list the events are added to
+     * @return the length of the valid part of the log
+     * @throws IOException if the log cannot be read
+     */
+    private long replayLog(ArrayList<Event> events) throws IOException {
+        ByteBuffer buffer = readFully(log_, logPath_);
+        buffer.position(LOG_HEADER);
+        CRC32 crc = new CRC32();
+        int validLength = LOG_HEADER;
+        while (buffer.remaining() >= RECORD_HEADER) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break; //torn write: the record was not fully written
+            }
+            int payloadStart = buffer.position();
+            crc.reset();
+            crc.update(buffer.slice(payloadStart, length));
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            events.add(decode(buffer));
+            buffer.position(payloadStart + length);
+            validLength = buffer.position();
+            recordsSinceSnapshot_++;
+        }
+        return validLength;
+    }
+
+    /**
+     * Reads a whole file into a heap buffer. The files are not memory mapped, because a mapping stays
+     * open until it is garbage collected, and on Windows a mapped file cannot be truncated or replaced
+     * @param channel the file's channel
+     * @param path the file's path, for the error message
+     * @return a buffer holding the file's bytes, positioned at its start
+     * @throws IOException if the file cannot be read or does not fit in a buffer
+     */
+    private static ByteBuffer readFully(FileChannel channel, Path path) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("File too large to load: " + path);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                break; //the file was shortened while it was read
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Empties the log and starts a new generation
+     * @param generation the new log's generation
+     * @throws IOException if the log cannot be written
+     */
+    private void resetLog(long generation) throws IOException {
+        log_.truncate(0);
+        torn_ = false;
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER).putLong(0, generation);
+        log_.write(header, 0);
+        log_.force(true);
+        log_.position(LOG_HEADER);
+        logGeneration_ = generation;
+        recordsSinceSnapshot_ = 0;
+    }
+
+    /**
+     * Encodes an event as a payload. A name longer than Short.MAX_VALUE bytes is cut at the last
+     * whole character that fits
+     * @param event an event
+     * @return the payload's bytes
+     */
+    private static byte[] encode(Event event) {
+        byte[] name = event.getName_().getBytes(StandardCharsets.UTF_8);
+        int nameLength = Math.min(name.length, Short.MAX_VALUE);
+        while (nameLength < name.length && (name[nameLength] & 0xC0) == 0x80) {
+            nameLength--; //the first byte left out continues a character, leave out the whole character
+        }
+        ByteBuffer payload = ByteBuffer.allocate(1 + 2 + nameLength + 8 + 8 + 4 + 4);
+        payload.put(ADD_MINUTES).putShort((short) nameLength).put(name, 0, nameLength)
+                .putLong(event.getStartDay_()).putLong(event.getEndDay_()).putInt(event.getDayMask_())
+                .putInt(event.getTimeInterval_().getPacked());
+        return payload.array();
+    }
+
+    /**
+     * Decodes the payload at the buffer's position, moving the position past it
+     * @param buffer the bytes holding the payload
+     * @return the decoded event
+     * @throws IOException if the payload is not an added event or its fields are out of range
+     */
+    private static Event decode(ByteBuffer buffer) throws IOException {
+        byte type = buffer.get();
+        if (type != ADD && type != ADD_MINUTES) {
+            throw new IOException("Unknown record type");
+        }
+        try {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            long startDay = buffer.getLong();
+            long endDay = buffer.getLong();
+            int dayMask = buffer.getInt();
+            //whole hours are checked by TimeInterval, which rejects times a version 1 file should not hold
+            TimeInterval timeInterval = type == ADD ? new TimeInterval(buffer.getInt(), buffer.getInt())
+                    : TimeInterval.ofPacked(buffer.getInt());
+            return new Event(new String(name, StandardCharsets.UTF_8), timeInterval, startDay, endDay, dayMask);
+        }
+        catch (IllegalArgumentException | NegativeArraySizeException | BufferUnderflowException exception) {
+            throw new IOException("Corrupt record", exception);
+        }
+    }
+
+    /**
+     * Writes a buffer's contents to the end of the log and clears it
+     * @param buffer the buffer being written
+     * @throws IOException if the log cannot be written
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            log_.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * EventTimeline class that keeps the calendar's events ordered by their
+ * precomputed sort keys, so adding an event is a skip list insert instead of
+ * sorting the whole event list, and the events starting in a range of days
+ * can be walked in order without looking at the others.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Maps each sort key (first occurrence packed with the time interval, see Event.getSortKey) to the
+ * events that have it, in the order they were added. Like EventIndex, a bucket is an array that is
+ * replaced (never changed) when an event is added, so other threads can read while one thread adds
+ */
+public class EventTimeline {
+    private final ConcurrentSkipListMap<Long, Event[]> buckets_; //sort key -> events with that key
+    private volatile int size_; //events in all buckets, changed by the single writer only
+
+    /**
+     * Constructor for class EventTimeline
+     */
+    public EventTimeline() {
+        buckets_ = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Adds an event after the events that are already in it. Only one thread may add at a time
+     * @param event the event being added
+     */
+    public void add(Event event) {
+        buckets_.merge(event.getSortKey(), new Event[] {event}, (bucket, added) -> {
+            Event[] newBucket = Arrays.copyOf(bucket, bucket.length + 1);
+            newBucket[bucket.length] = event;
+            return newBucket;
+        });
+        size_++;
+    }
+
+    /**
+     * Adds many events after the events that are already in it, replacing each bucket once.
+     * Only one thread may add at a time
+     * @param events the events being added, in the order they should follow each other
+     */
+    public void addAll(List<Event> events) {
+        HashMap<Long, ArrayList<Event>> added = new HashMap<>();
+        for (Event event : events) {
+            added.computeIfAbsent(event.getSortKey(), key -> new ArrayList<>()).add(event);
+        }
+        added.forEach((key, keyEvents) -> buckets_.merge(key, keyEvents.toArray(new Event[0]), (bucket, more) -> {
+            Event[] newBucket = Arrays.copyOf(bucket, bucket.length + more.length);
+            System.arraycopy(more, 0, newBucket, bucket.length, more.length);
+            return newBucket;
+        }));
+        size_ += events.size();
+    }
+
+    /**
+     * Walks every event in order
+     * @param action receives each event, ordered by first occurrence, then by time interval
+     */
+    public void forEach(Consumer<Event> action) {
+        for (Event[] bucket : buckets_.values()) {
+            for (Event event : bucket) {
+                action.accept(event);
+            }
+        }
+    }
+
+    /**
+     * Lists the events whose first occurrence is between two days (both inclusive)
+     * @param fromDay the first epoch day of the range
+     * @param toDay the last epoch day of the range
+     * @return a stream of events, ordered by first occurrence, then by time interval
+     */
+    public Stream<Event> startingBetween(long fromDay, long toDay) {
+        if (fromDay > toDay) {
+            return Stream.empty();
+        }
+        return buckets_.subMap(PackedTime.pack(fromDay, 0), true, PackedTime.pack(toDay + 1, 0), false)
+                .values().stream().flatMap(Arrays::stream);
+    }
+
+    /**
+     * Copies the events into a list
+     * @return an unmodifiable list, ordered like forEach
+     */
+    public List<Event> toList() {
+        ArrayList<Event> events = new ArrayList<>(size_);
+        forEach(events::add);
+        return Collections.unmodifiableList(events);
+    }
+
+    /**
+     * Gets the number of events
+     * @return the number of events in all buckets
+     */
+    public int size() {
+        return size_;
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * FreeBusyIndex class that keeps a bitmap of the busy minutes of every day of
+ * one calendar, so free time can be found across many calendars by OR-ing a
+ * few words per day instead of looking at their events.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the busy minutes of a calendar's days. A day's bitmap is replaced (never changed) when an
+ * event is added, so searches can run on any thread while events are added on other threads
+ */
+public class FreeBusyIndex {
+    private static final int WORDS = (PackedTime.MINUTES_IN_DAY + 63) / 64; //longs in a day's bitmap
+
+    private final ConcurrentHashMap<Long, long[]> busy_; //epoch day -> bit n set if minute n is taken
+    private volatile CalendarCore calendar_; //the calendar being followed, null if there is none
+    private Consumer<List<Event>> observer_; //adds the calendar's new events, null if there is none
+
+    /**
+     * Constructor for class FreeBusyIndex
+     */
+    public FreeBusyIndex() {
+        busy_ = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates an index that follows a calendar: it holds the calendar's events and every event
+     * added to the calendar later
+     * @param calendar the calendar being followed
+     * @return the index
+     */
+    public static FreeBusyIndex of(CalendarCore calendar) {
+        FreeBusyIndex index = new FreeBusyIndex();
+        index.calendar_ = calendar;
+        index.observer_ = added -> added.forEach(index::add);
+        //observe first, so no event falls between the two; adding an event twice changes nothing, and the
+        //writer's thread may add while this thread does, since each day is updated atomically
+        calendar.addObserver(index.observer_);
+        calendar.getEvents().forEach(index::add);
+        return index;
+    }
+
+    /**
+     * Gets the calendar the index follows
+     * @return the calendar, or null if the index was not created for one or was detached
+     */
+    public CalendarCore getCore() {
+        return calendar_;
+    }
+
+    /**
+     * Stops following the calendar the index was created for, so the calendar no longer keeps it alive
+     */
+    public void detach() {
+        if (calendar_ != null) {
+            calendar_.removeObserver(observer_);
+            calendar_ = null;
+            observer_ = null;
+        }
+    }
+
+    /**
+     * Marks the minutes of an event as busy on every day it occurs on. Any number of threads may add at once
+     * @param event an event in the calendar
+     */
+    public void add(Event event) {
+        int start = event.getTimeInterval_().getStartMinute_();
+        int end = Math.min(event.getTimeInterval_().getEndMinute_(), PackedTime.MINUTES_IN_DAY);
+        if (start >= end) {
+            return;
+        }
+        event.getDays().forEach(day -> busy_.compute(day, (key, bits) -> {
+            long[] newBits = bits == null ? new long[WORDS] : bits.clone();
+            setRange(newBits, start, end);
+            return newBits;
+        }));
+    }
+
+    /**
+     * Checks if a minute of a day is busy
+     * @param epochDay a day counted from 1970-01-01
+     * @param minute minutes after midnight
+     * @return true if an event takes that minute
+     */
+    public boolean isBusy(long epochDay, int minute) {
+        long[] bits = busy_.get(epochDay);
+        return bits != null && (bits[minute >> 6] & 1L << minute) != 0;
+    }
+
+    /**
+     * Finds the first free slots that every calendar has in common between two dates
+     * @param calendars the calendars' indexes
+     * @param startDate the first day searched
+     * @param endDate the last day searched (inclusive)
+     * @param length the slot's length in minutes
+     * @param count the most slots returned
+     * @return the slots as packed occurrences (see PackedTime), in order and not overlapping
+     */
+    public static long[] findFreeSlots(Collection<FreeBusyIndex> calendars, LocalDate startDate, LocalDate endDate,
+                                       int length, int count) {
+        return findFreeSlots(calendars, startDate, endDate, 0, PackedTime.MINUTES_IN_DAY, length, count);
+    }
+
+    /**
+     * Finds the first free slots that every calendar has in common between two dates, within the
+     * same hours of every day (such as working hours)
+     * @param calendars the calendars' indexes
+     * @param startDate the first day searched
+     * @param endDate the last day searched (inclusive)
+     * @param fromMinute the earliest minute of a day a slot may start at
+     * @param toMinute the minute of a day every slot must end by
+     * @param length the slot's length in minutes
+     * @param count the most slots returned
+     * @return the slots as packed occurrences (see PackedTime), in order and not overlapping
+     * @throws IllegalArgumentException if the length or the hours of the day are out of range
+     */
+    public static long[] findFreeSlots(Collection<FreeBusyIndex> calendars, LocalDate startDate, LocalDate endDate,
+                                       int fromMinute, int toMinute, int length, int count) {
+        if (length <= 0 || fromMinute < 0 || toMinute > PackedTime.MINUTES_IN_DAY || fromMinute > toMinute) {
+            throw new IllegalArgumentException("Invalid slot: " + length + " minutes between "
+                    + fromMinute + " and " + toMinute);
+        }
+        long[] slots = new long[Math.max(count, 0)];
+        int found = 0;
+        long[] union = new long[WORDS];
+        for (long day = startDate.toEpochDay(); day <= endDate.toEpochDay() && found < slots.length; day++) {
+            Arrays.fill(union, 0);
+            for (FreeBusyIndex calendar : calendars) {
+                long[] bits = calendar.busy_.get(day);
+                if (bits != null) {
+                    for (int i = 0; i < WORDS; i++) {
+                        union[i] |= bits[i];
+                    }
+                }
+            }
+            //jump from one free run to the next, a word at a time
+            int position = fromMinute;
+            while (position + length <= toMinute && found < slots.length) {
+                int start = nextClear(union, position, toMinute);
+                int end = nextSet(union, start, toMinute);
+                for (; end - start >= length && found < slots.length; start += length) {
+                    slots[found++] = PackedTime.pack(day, start, start + length);
+                }
+                position = end;
+            }
+        }
+        return found == slots.length ? slots : Arrays.copyOf(slots, found);
+    }
+
+    /**
+     * Sets the bits of a range of minutes
+     * @param bits a day's bitmap
+     * @param start the first minute
+     * @param end the minute after the last one
+     */
+    private static void setRange(long[] bits, int start, int end) {
+        int first = start >> 6;
+        int last = (end - 1) >> 6;
+        for (int i = first; i <= last; i++) {
+            long mask = -1L;
+            if (i == first) {
+                mask &= -1L << start;
+            }
+            if (i == last) {
+                mask &= -1L >>> (63 - ((end - 1) & 63));
+            }
+            bits[i] |= mask;
+        }
+    }
+
+    /**
+     * Finds the next busy minute
+     * @param bits a day's bitmap
+     * @param from the first minute looked at
+     * @param limit the minute after the last one looked at
+     * @return the busy minute, or limit if there is none
+     */
+    private static int nextSet(long[] bits, int from, int limit) {
+        if (from >= limit) {
+            return limit;
+        }
+        int i = from >> 6;
+        long word = bits[i] & -1L << from;
+        while (word == 0) {
+            if (++i << 6 >= limit) {
+                return limit;
+            }
+            word = bits[i];
+        }
+        return Math.min((i << 6) + Long.numberOfTrailingZeros(word), limit);
+    }
+
+    /**
+     * Finds the next free minute
+     * @param bits a day's bitmap
+     * @param from the first minute looked at
+     * @param limit the minute after the last one looked at
+     * @return the free minute, or limit if there is none
+     */
+    private static int nextClear(long[] bits, int from, int limit) {
+        if (from >= limit) {
+            return limit;
+        }
+        int i = from >> 6;
+        long word = ~bits[i] & -1L << from;
+        while (word == 0) {
+            if (++i << 6 >= limit) {
+                return limit;
+            }
+            word = ~bits[i];
+        }
+        return Math.min((i << 6) + Long.numberOfTrailingZeros(word), limit);
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * HitRegion class for ShapeObject: a clickable part of a shape, such as a
+ * day number of the calendar, with the thing a click on it refers to.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.awt.*;
+
+/**
+ * Models a clickable rectangle of a shape. The rectangle's edges are part of the region
+ */
+public class HitRegion {
+    private final Rectangle bounds_;
+    private final Object target_;
+
+    /**
+     * Constructor for class HitRegion
+     * @param bounds the clickable rectangle, edges included
+     * @param target what a click on the region refers to
+     */
+    public HitRegion(Rectangle bounds, Object target) {
+        bounds_ = bounds;
+        target_ = target;
+    }
+
+    /**
+     * Gets the clickable rectangle
+     * @return the region's bounds (must not be changed)
+     */
+    public Rectangle getBounds_() {
+        return bounds_;
+    }
+
+    /**
+     * Gets what a click on the region refers to
+     * @return the region's target
+     */
+    public Object getTarget_() {
+        return target_;
+    }
+
+    /**
+     * Checks if a point is in the region
+     * @param x the point's x
+     * @param y the point's y
+     * @return True/False boolean
+     */
+    public boolean contains(int x, int y) {
+        return x >= bounds_.x && x <= bounds_.x + bounds_.width && y >= bounds_.y && y <= bounds_.y + bounds_.height;
+    }
+}
@@ -0,0 +1,547 @@
+/**
+ * IcsReader class that streams events out of iCalendar (RFC 5545) files.
+ * Each VEVENT becomes one Event whose recurrence rule is taken from its RRULE,
+ * so occurrences are never expanded while reading, and the events are handed
+ * over in batches, so a file of any size is read in constant memory.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads VEVENT components from a channel, one unfolded content line at a time.
+ * Supported: SUMMARY, DTSTART and DTEND (floating, UTC or with a TZID, or VALUE=DATE for all-day
+ * events), DURATION, and RRULE with FREQ=DAILY or FREQ=WEEKLY, BYDAY, UNTIL and COUNT.
+ * Times with a zone are moved to the system zone using the offset of the first occurrence.
+ * Events that cannot be kept as a rule without expanding them (other frequencies, INTERVAL above 1,
+ * BYDAY ordinals, EXDATE, RDATE, RECURRENCE-ID, or times spanning midnight) are reported as invalid
+ * lines, by the line their BEGIN:VEVENT is on. A rule without an end stops after HORIZON_DAYS
+ */
+public class IcsReader {
+    public static final int BATCH_SIZE = 10_000; //events handed over at a time
+    public static final int HORIZON_DAYS = 5 * 366; //how long a rule without UNTIL or COUNT recurs
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String DAY_CODES = "  MOTUWETHFRSASU"; //two letters per DayOfWeek value
+
+    private final ReadableByteChannel channel_;
+    private final ZoneId zone_; //the zone times are converted to
+    private final ArrayList<Integer> invalidLines_;
+    private int lineCount_;
+    private long elapsedNanos_;
+
+    //the VEVENT being read
+    private int eventLine_; //line of its BEGIN:VEVENT, 0 when outside a VEVENT
+    private int nestedDepth_; //components opened inside it, such as VALARM
+    private boolean unsupported_;
+    private String summary_;
+    private String start_;
+    private ZoneId startZone_; //null for floating times
+    private String end_;
+    private ZoneId endZone_;
+    private String duration_;
+    private String rule_;
+
+    /**
+     * Constructor for class IcsReader
+     * @param channel the channel the iCalendar text is read from (UTF-8)
+     */
+    public IcsReader(ReadableByteChannel channel) {
+        this(channel, ZoneId.systemDefault());
+    }
+
+    /**
+     * Constructor for class IcsReader
+     * @param channel the channel the iCalendar text is read from (UTF-8)
+     * @param zone the zone times with a TZID or in UTC are converted to
+     */
+    public IcsReader(ReadableByteChannel channel, ZoneId zone) {
+        channel_ = channel;
+        zone_ = zone;
+        invalidLines_ = new ArrayList<>();
+    }
+
+    /**
+     * Reads every VEVENT of the channel, handing the events over in batches of at most BATCH_SIZE
+     * @param batches receives each batch of events, in the order of the file; the list is not reused
+     * @throws IOException if the channel cannot be read
+     */
+    public void read(Consumer<List<Event>> batches) throws IOException {
+        long startTime = System.nanoTime();
+        invalidLines_.clear();
+        lineCount_ = 0;
+        eventLine_ = 0;
+        ArrayList<Event> batch = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(Channels.newReader(channel_, StandardCharsets.UTF_8), BUFFER_SIZE);
+        StringBuilder line = new StringBuilder();
+        int lineNumber = 0;
+        String physical;
+        while ((physical = reader.readLine()) != null) {
+            lineCount_++;
+            if (!physical.isEmpty() && (physical.charAt(0) == ' ' || physical.charAt(0) == '\t')) {
+                line.append(physical, 1, physical.length()); //a folded line continues the previous one
+                continue;
+            }
+            if (lineNumber > 0) {
+                readLine(line, lineNumber, batch);
+            }
+            line.setLength(0);
+            line.append(physical);
+            lineNumber = lineCount_;
+            if (batch.size() >= BATCH_SIZE) {
+                batches.accept(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (lineNumber > 0) {
+            readLine(line, lineNumber, batch);
+        }
+        if (eventLine_ > 0) {
+            invalidLines_.add(eventLine_); //the file ended inside a VEVENT
+        }
+        if (!batch.isEmpty()) {
+            batches.accept(batch);
+        }
+        elapsedNanos_ = System.nanoTime() - startTime;
+    }
+
+    /**
+     * Reads every VEVENT of the channel into one list
+     * @return the events in the order of the file
+     * @throws IOException if the channel cannot be read
+     */
+    public ArrayList<Event> readAll() throws IOException {
+        ArrayList<Event> events = new ArrayList<>();
+        read(events::addAll);
+        return events;
+    }
+
+    /**
+     * Gets the number of lines read by the last read
+     * @return the number of physical lines
+     */
+    public int getLineCount() {
+        return lineCount_;
+    }
+
+    /**
+     * Gets the VEVENTs that could not be read by the last read
+     * @return a list of line numbers (starting at 1) of BEGIN:VEVENT lines
+     */
+    public ArrayList<Integer> getInvalidLines() {
+        return invalidLines_;
+    }
+
+    /**
+     * Gets the throughput of the last read
+     * @return the number of lines read per second
+     */
+    public double getLinesPerSecond() {
+        return elapsedNanos_ == 0 ? 0 : lineCount_ * 1_000_000_000.0 / elapsedNanos_;
+    }
+
+    /**
+     * Reads one unfolded content line (name *(";" param) ":" value)
+     * @param line the content line
+     * @param lineNumber the number of its first physical line
+     * @param batch the batch a finished event is added to
+     */
+    private void readLine(StringBuilder line, int lineNumber, ArrayList<Event> batch) {
+        if (line.length() == 0) {
+            return;
+        }
+        int colon = valueStart(line);
+        if (colon < 0) {
+            if (eventLine_ > 0) {
+                unsupported_ = true;
+            }
+            return;
+        }
+        int nameEnd = line.indexOf(";");
+        if (nameEnd < 0 || nameEnd > colon) {
+            nameEnd = colon;
+        }
+        String name = line.substring(0, nameEnd).toUpperCase();
+        String value = line.substring(colon + 1);
+        if (name.equals("BEGIN")) {
+            if (eventLine_ > 0) {
+                nestedDepth_++;
+            }
+            else if (value.equalsIgnoreCase("VEVENT")) {
+                startEvent(lineNumber);
+            }
+            return;
+        }
+        if (name.equals("END")) {
+            if (eventLine_ > 0 && nestedDepth_ > 0) {
+                nestedDepth_--;
+            }
+            else if (eventLine_ > 0 && value.equalsIgnoreCase("VEVENT")) {
+                Event event = unsupported_ ? null : buildEvent();
+                if (event == null) {
+                    invalidLines_.add(eventLine_);
+                }
+                else {
+                    batch.add(event);
+                }
+                eventLine_ = 0;
+            }
+            return;
+        }
+        if (eventLine_ == 0 || nestedDepth_ > 0) {
+            return; //calendar properties, time zone definitions and alarms are not needed
+        }
+        String parameters = line.substring(nameEnd, colon);
+        switch (name) {
+            case "SUMMARY" -> summary_ = unescape(value);
+            case "DTSTART" -> {
+                start_ = value;
+                startZone_ = zoneOf(value, parameters);
+            }
+            case "DTEND" -> {
+                end_ = value;
+                endZone_ = zoneOf(value, parameters);
+            }
+            case "DURATION" -> duration_ = value;
+            case "RRULE" -> {
+                unsupported_ |= rule_ != null; //more than one rule cannot be kept as one event
+                rule_ = value.toUpperCase();
+            }
+            case "EXDATE", "RDATE", "RECURRENCE-ID" -> unsupported_ = true;
+            default -> { }
+        }
+    }
+
+    /**
+     * Starts reading a VEVENT
+     * @param lineNumber the line of its BEGIN:VEVENT
+     */
+    private void startEvent(int lineNumber) {
+        eventLine_ = lineNumber;
+        nestedDepth_ = 0;
+        unsupported_ = false;
+        summary_ = "";
+        start_ = null;
+        startZone_ = null;
+        end_ = null;
+        endZone_ = null;
+        duration_ = null;
+        rule_ = null;
+    }
+
+    /**
+     * Turns the properties of the VEVENT that was just read into an event
+     * @return the event, or null if the VEVENT cannot be kept as one event
+     */
+    private Event buildEvent() {
+        try {
+            if (start_ == null) {
+                return null;
+            }
+            LocalDateTime start = toLocal(parseDateTime(start_), startZone_);
+            LocalDateTime end;
+            boolean allDay = start_.length() == 8;
+            if (end_ != null) {
+                end = toLocal(parseDateTime(end_), endZone_);
+            }
+            else if (duration_ != null) {
+                end = addDuration(start, duration_);
+            }
+            else {
+                end = allDay ? start.plusDays(1) : start; //see RFC 5545 3.6.1
+            }
+            if (end.isBefore(start)) {
+                return null;
+            }
+            long startDay = start.toLocalDate().toEpochDay();
+            int startMinute = start.getHour() * 60 + start.getMinute();
+            long endDays = end.toLocalDate().toEpochDay() - startDay;
+            int endMinute = end.getHour() * 60 + end.getMinute();
+            if (endDays == 1 && endMinute == 0) {
+                endMinute = PackedTime.MINUTES_IN_DAY;
+            }
+            else if (allDay && rule_ == null && endDays > 1 && endMinute == 0) {
+                //an all-day event spanning several days is a daily rule over those days
+                return new Event(summary_, TimeInterval.ofMinutes(0, PackedTime.MINUTES_IN_DAY),
+                        startDay, startDay + endDays - 1, Event.ALL_DAYS);
+            }
+            else if (endDays != 0) {
+                return null;
+            }
+            TimeInterval timeInterval = TimeInterval.ofMinutes(startMinute, endMinute);
+            if (rule_ == null) {
+                return new Event(summary_, timeInterval, startDay, startDay, Event.ALL_DAYS);
+            }
+            int zoneShift = (int) (startDay - parseDateTime(start_).toLocalDate().toEpochDay());
+            return buildRecurring(timeInterval, startDay, zoneShift);
+        }
+        catch (DateTimeException | IllegalArgumentException | IndexOutOfBoundsException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Turns the RRULE of the VEVENT that was just read into a recurring event
+     * @param timeInterval the event's time interval in the reader's zone
+     * @param startDay the epoch day of DTSTART in the reader's zone
+     * @param zoneShift the days DTSTART moved by when converted to the reader's zone
+     * @return the event, or null if the rule cannot be kept as one event
+     */
+    private Event buildRecurring(TimeInterval timeInterval, long startDay, int zoneShift) {
+        String frequency = null;
+        int dayMask = 0;
+        long endDay = Long.MIN_VALUE;
+        int count = -1;
+        for (String part : rule_.split(";")) {
+            int equals = part.indexOf('=');
+            if (equals < 0) {
+                return null;
+            }
+            String value = part.substring(equals + 1);
+            switch (part.substring(0, equals)) {
+                case "FREQ" -> frequency = value;
+                case "INTERVAL" -> {
+                    if (Integer.parseInt(value) != 1) {
+                        return null;
+                    }
+                }
+                case "BYDAY" -> {
+                    for (String day : value.split(",")) {
+                        int dayValue = day.length() == 2 ? DAY_CODES.indexOf(day) : -1;
+                        if (dayValue < 0 || dayValue % 2 != 0) {
+                            return null; //ordinals such as 1MO only make sense for monthly rules
+                        }
+                        dayMask |= 1 << (dayValue / 2);
+                    }
+                }
+                case "UNTIL" -> {
+                    ZoneId untilZone = value.endsWith("Z") ? ZoneOffset.UTC : startZone_;
+                    LocalDateTime until = toLocal(parseDateTime(value), untilZone);
+                    endDay = until.toLocalDate().toEpochDay();
+                    int untilSecond = until.toLocalTime().toSecondOfDay();
+                    if (value.length() > 8 && untilSecond < timeInterval.getStartMinute_() * 60) {
+                        endDay--; //UNTIL is inclusive, but the occurrence on its day would start after it
+                    }
+                }
+                case "COUNT" -> count = Integer.parseInt(value);
+                case "WKST" -> { } //only matters for rules with an interval
+                default -> {
+                    return null;
+                }
+            }
+        }
+        if (frequency == null) {
+            return null;
+        }
+        if (frequency.equals("DAILY")) {
+            dayMask = dayMask == 0 ? Event.ALL_DAYS : dayMask;
+        }
+        else if (frequency.equals("WEEKLY")) {
+            dayMask = dayMask == 0 ? 1 << Event.dayOfWeek(startDay - zoneShift) : dayMask;
+        }
+        else {
+            return null;
+        }
+        dayMask = shiftMask(dayMask, zoneShift);
+        if (count > 0) {
+            endDay = countedEnd(startDay, dayMask, count);
+        }
+        else if (endDay == Long.MIN_VALUE) {
+            endDay = startDay + HORIZON_DAYS - 1;
+        }
+        return new Event(summary_, timeInterval, startDay, endDay, dayMask);
+    }
+
+    /**
+     * Finds the day a rule's occurrences run out on when it has a COUNT
+     * @param startDay the epoch day the rule starts on
+     * @param dayMask the days of the week the rule recurs on
+     * @param count the number of occurrences
+     * @return the epoch day of the last occurrence
+     */
+    private static long countedEnd(long startDay, int dayMask, int count) {
+        int perWeek = Integer.bitCount(dayMask);
+        long day = startDay + 7L * ((count - 1) / perWeek); //every 7 days hold perWeek occurrences
+        int remaining = (count - 1) % perWeek + 1;
+        while (true) {
+            if ((dayMask & (1 << Event.dayOfWeek(day))) != 0 && --remaining == 0) {
+                return day;
+            }
+            day++;
+        }
+    }
+
+    /**
+     * Moves the days of a day mask by a number of days, wrapping around the week
+     * @param dayMask bit n is set for DayOfWeek n
+     * @param shift the number of days (-1, 0 or 1 for a zone conversion)
+     * @return the shifted mask
+     */
+    private static int shiftMask(int dayMask, int shift) {
+        int shifted = 0;
+        for (int day = 1; day <= 7; day++) {
+            if ((dayMask & (1 << day)) != 0) {
+                shifted |= 1 << (Math.floorMod(day - 1 + shift, 7) + 1);
+            }
+        }
+        return shifted;
+    }
+
+    /**
+     * Gets the zone of a DATE-TIME value
+     * @param value the value, ending with Z if it is in UTC
+     * @param parameters the property's parameters, starting with ';' (may be empty)
+     * @return the zone, or null for floating times and dates
+     */
+    private static ZoneId zoneOf(String value, String parameters) {
+        if (value.endsWith("Z")) {
+            return ZoneOffset.UTC;
+        }
+        int tzid = parameters.toUpperCase().indexOf(";TZID=");
+        if (tzid < 0) {
+            return null;
+        }
+        int end = parameters.indexOf(';', tzid + 1);
+        String id = parameters.substring(tzid + 6, end < 0 ? parameters.length() : end);
+        if (id.startsWith("\"")) {
+            id = id.substring(1, id.length() - 1);
+        }
+        return ZoneId.of(id.startsWith("/") ? id.substring(1) : id); //unknown zones make the event invalid
+    }
+
+    /**
+     * Converts a time in a zone to the reader's zone
+     * @param time the time
+     * @param zone its zone, or null if it is floating
+     * @return the time in the reader's zone
+     */
+    private LocalDateTime toLocal(LocalDateTime time, ZoneId zone) {
+        return zone == null ? time : time.atZone(zone).withZoneSameInstant(zone_).toLocalDateTime();
+    }
+
+    /**
+     * Parses a DATE (yyyyMMdd) or DATE-TIME (yyyyMMddTHHmmss, optionally ending with Z) value
+     * @param value the value
+     * @return the local date and time, midnight for a DATE
+     */
+    private static LocalDateTime parseDateTime(String value) {
+        LocalDate date = LocalDate.of(digits(value, 0, 4), digits(value, 4, 6), digits(value, 6, 8));
+        if (value.length() == 8) {
+            return date.atStartOfDay();
+        }
+        if (value.charAt(8) != 'T') {
+            throw new IllegalArgumentException("Invalid date-time: " + value);
+        }
+        return date.atTime(digits(value, 9, 11), digits(value, 11, 13), digits(value, 13, 15));
+    }
+
+    /**
+     * Adds a DURATION value ([+]P[nW][nD][T[nH][nM][nS]]) to a time
+     * @param time the start time
+     * @param duration the value
+     * @return the end time
+     */
+    private static LocalDateTime addDuration(LocalDateTime time, String duration) {
+        int position = duration.charAt(0) == '+' ? 1 : 0;
+        if (duration.charAt(position) != 'P') {
+            throw new IllegalArgumentException("Invalid duration: " + duration);
+        }
+        long seconds = 0;
+        int number = -1;
+        for (int i = position + 1; i < duration.length(); i++) {
+            char c = duration.charAt(i);
+            if (c >= '0' && c <= '9') {
+                number = Math.max(number, 0) * 10 + c - '0';
+                continue;
+            }
+            if (c != 'T') {
+                if (number < 0) {
+                    throw new IllegalArgumentException("Invalid duration: " + duration);
+                }
+                seconds += number * switch (c) {
+                    case 'W' -> 7 * 86_400L;
+                    case 'D' -> 86_400L;
+                    case 'H' -> 3_600L;
+                    case 'M' -> 60L;
+                    case 'S' -> 1L;
+                    default -> throw new IllegalArgumentException("Invalid duration: " + duration);
+                };
+            }
+            number = -1;
+        }
+        return time.plusSeconds(seconds);
+    }
+
+    /**
+     * Reads a non-negative decimal number from part of a string
+     * @param value the string
+     * @param start the index of the first digit
+     * @param end the index after the last digit
+     * @return the number
+     */
+    private static int digits(String value, int start, int end) {
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Invalid number: " + value);
+            }
+            number = number * 10 + digit;
+        }
+        return number;
+    }
+
+    /**
+     * Finds the ':' that separates a content line's name and parameters from its value,
+     * skipping colons inside quoted parameter values
+     * @param line the content line
+     * @return the index of the ':', or -1 if there is none
+     */
+    private static int valueStart(StringBuilder line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            }
+            else if (c == ':' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Undoes the escaping of a TEXT value (\\, \;, \, and \n)
+     * @param value the escaped value
+     * @return the text
+     */
+    static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder text = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                text.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            }
+            else {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+}
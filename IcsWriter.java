@@ -0,0 +1,254 @@
+/**
+ * IcsWriter class that exports events as an iCalendar (RFC 5545) file.
+ * Each event is written as one VEVENT with an RRULE, so a recurring event takes
+ * a few lines no matter how many times it occurs, and the text is encoded into
+ * a reused buffer that is written straight to a channel.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes events as VEVENTs with floating local times (the calendar has no time zones), folding lines
+ * at 75 octets. The events are read back by IcsReader as the same rules
+ */
+public class IcsWriter {
+    public static final String PRODUCT_ID = "-//Dimitar Dimitrov//Calendar//EN";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_LINE_OCTETS = 75; //not counting the line break, see RFC 5545 3.1
+    private static final String DAY_CODES = "  MOTUWETHFRSASU"; //two letters per DayOfWeek value
+
+    private final WritableByteChannel channel_;
+    private final ByteBuffer buffer_;
+    private final StringBuilder line_; //the content line being built
+    private int lineOctets_; //octets written on the current physical line
+
+    /**
+     * Constructor for class IcsWriter
+     * @param channel the channel the iCalendar text is written to (UTF-8)
+     */
+    public IcsWriter(WritableByteChannel channel) {
+        channel_ = channel;
+        buffer_ = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        line_ = new StringBuilder();
+    }
+
+    /**
+     * Writes a VCALENDAR holding the events. Events that never occur are skipped
+     * @param events the events being exported
+     * @return the number of VEVENTs written
+     * @throws IOException if the channel cannot be written to
+     */
+    public int write(Iterable<Event> events) throws IOException {
+        String timestamp = stamp(LocalDateTime.now(ZoneOffset.UTC));
+        buffer_.clear();
+        writeLine("BEGIN:VCALENDAR");
+        writeLine("VERSION:2.0");
+        writeLine("PRODID:" + PRODUCT_ID);
+        int count = 0;
+        for (Event event : events) {
+            if (event.getFirstDay_() == Long.MAX_VALUE) {
+                continue;
+            }
+            count++;
+            writeEvent(event, count, timestamp);
+        }
+        writeLine("END:VCALENDAR");
+        flush();
+        return count;
+    }
+
+    /**
+     * Writes one event as a VEVENT starting on its first occurrence
+     * @param event the event
+     * @param number the event's position in the export, used for its UID
+     * @param timestamp the DTSTAMP of the export
+     * @throws IOException if the channel cannot be written to
+     */
+    private void writeEvent(Event event, int number, String timestamp) throws IOException {
+        writeLine("BEGIN:VEVENT");
+        line_.setLength(0);
+        line_.append("UID:").append(number).append('-').append(Long.toHexString(event.getSortKey()))
+                .append("@calendar");
+        writeLine(line_);
+        writeLine("DTSTAMP:" + timestamp);
+        TimeInterval timeInterval = event.getTimeInterval_();
+        long firstDay = event.getFirstDay_();
+        line_.setLength(0);
+        line_.append("DTSTART:");
+        appendDateTime(line_, firstDay, timeInterval.getStartMinute_());
+        writeLine(line_);
+        line_.setLength(0);
+        line_.append("DTEND:");
+        appendDateTime(line_, firstDay, timeInterval.getEndMinute_()); //minute 1440 is midnight of the next day
+        writeLine(line_);
+        if (event.getEndDay_() > firstDay) {
+            line_.setLength(0);
+            int dayMask = event.getDayMask_();
+            if (dayMask == Event.ALL_DAYS) {
+                line_.append("RRULE:FREQ=DAILY");
+            }
+            else {
+                line_.append("RRULE:FREQ=WEEKLY;BYDAY=");
+                for (int day = 1; day <= 7; day++) {
+                    if ((dayMask & (1 << day)) != 0) {
+                        line_.append(DAY_CODES, day * 2, day * 2 + 2).append(',');
+                    }
+                }
+                line_.setLength(line_.length() - 1);
+            }
+            line_.append(";UNTIL=");
+            appendDate(line_, event.getEndDay_());
+            line_.append("T235959");
+            writeLine(line_);
+        }
+        line_.setLength(0);
+        line_.append("SUMMARY:");
+        escape(line_, event.getName_());
+        writeLine(line_);
+        writeLine("END:VEVENT");
+    }
+
+    /**
+     * Writes a content line, folding it so no physical line is longer than 75 octets
+     * @param line the content line, without its line break
+     * @throws IOException if the channel cannot be written to
+     */
+    private void writeLine(CharSequence line) throws IOException {
+        lineOctets_ = 0;
+        for (int i = 0; i < line.length(); i++) {
+            int codePoint = Character.codePointAt(line, i);
+            if (Character.isSupplementaryCodePoint(codePoint)) {
+                i++;
+            }
+            int octets = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (lineOctets_ + octets > MAX_LINE_OCTETS) {
+                putAscii('\r');
+                putAscii('\n');
+                putAscii(' '); //the space that marks a folded line counts towards its 75 octets
+                lineOctets_ = 1;
+            }
+            putCodePoint(codePoint, octets);
+            lineOctets_ += octets;
+        }
+        putAscii('\r');
+        putAscii('\n');
+    }
+
+    /**
+     * Puts one character into the buffer as UTF-8
+     * @param codePoint the character
+     * @param octets the length of its encoding
+     * @throws IOException if the buffer has to be flushed and the channel cannot be written to
+     */
+    private void putCodePoint(int codePoint, int octets) throws IOException {
+        if (buffer_.remaining() < octets) {
+            flush();
+        }
+        switch (octets) {
+            case 1 -> buffer_.put((byte) codePoint);
+            case 2 -> buffer_.put((byte) (0xC0 | codePoint >> 6)).put((byte) (0x80 | codePoint & 0x3F));
+            case 3 -> buffer_.put((byte) (0xE0 | codePoint >> 12)).put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                    .put((byte) (0x80 | codePoint & 0x3F));
+            default -> buffer_.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                    .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+        }
+    }
+
+    /**
+     * Puts one ASCII character into the buffer
+     * @param c the character
+     * @throws IOException if the buffer has to be flushed and the channel cannot be written to
+     */
+    private void putAscii(char c) throws IOException {
+        if (!buffer_.hasRemaining()) {
+            flush();
+        }
+        buffer_.put((byte) c);
+    }
+
+    /**
+     * Writes the buffer to the channel
+     * @throws IOException if the channel cannot be written to
+     */
+    private void flush() throws IOException {
+        buffer_.flip();
+        while (buffer_.hasRemaining()) {
+            channel_.write(buffer_);
+        }
+        buffer_.clear();
+    }
+
+    /**
+     * Appends a floating DATE-TIME (yyyyMMddTHHmmss)
+     * @param text the text being built
+     * @param epochDay a day counted from 1970-01-01
+     * @param minute minutes after midnight (0-1440)
+     */
+    private static void appendDateTime(StringBuilder text, long epochDay, int minute) {
+        appendDate(text, epochDay + minute / PackedTime.MINUTES_IN_DAY);
+        minute %= PackedTime.MINUTES_IN_DAY;
+        text.append('T');
+        appendTwoDigits(text, minute / 60);
+        appendTwoDigits(text, minute % 60);
+        text.append("00");
+    }
+
+    /**
+     * Appends a DATE (yyyyMMdd)
+     * @param text the text being built
+     * @param epochDay a day counted from 1970-01-01
+     */
+    private static void appendDate(StringBuilder text, long epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        text.append(date.getYear());
+        appendTwoDigits(text, date.getMonthValue());
+        appendTwoDigits(text, date.getDayOfMonth());
+    }
+
+    /**
+     * Appends a number from 0 to 99 as two digits
+     * @param text the text being built
+     * @param number the number
+     */
+    private static void appendTwoDigits(StringBuilder text, int number) {
+        text.append((char) ('0' + number / 10)).append((char) ('0' + number % 10));
+    }
+
+    /**
+     * Formats a UTC time as a DATE-TIME (yyyyMMddTHHmmssZ)
+     * @param time the time in UTC
+     * @return the formatted time
+     */
+    private static String stamp(LocalDateTime time) {
+        StringBuilder text = new StringBuilder(16);
+        appendDate(text, time.toLocalDate().toEpochDay());
+        text.append('T');
+        appendTwoDigits(text, time.getHour());
+        appendTwoDigits(text, time.getMinute());
+        appendTwoDigits(text, time.getSecond());
+        return text.append('Z').toString();
+    }
+
+    /**
+     * Appends a TEXT value, escaping backslashes, semicolons, commas and line breaks
+     * @param text the text being built
+     * @param value the value
+     */
+    private static void escape(StringBuilder text, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> text.append('\\').append(c);
+                case '\n' -> text.append("\\n");
+                case '\r' -> { }
+                default -> text.append(c);
+            }
+        }
+    }
+}
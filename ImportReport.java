@@ -0,0 +1,134 @@
+/**
+ * Helper class for CalendarDataModel: when events are imported in bulk,
+ * the events that were added, the events that were rejected because of a
+ * conflict and the lines that could not be read are collected in one report.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.util.ArrayList;
+
+/**
+ * Models the result of a bulk import
+ */
+public class ImportReport {
+    private final ArrayList<Event> added_;
+    private final ArrayList<String> conflicts_;
+    private final ArrayList<Integer> invalidLines_;
+    private double linesPerSecond_; //how fast the source was read, 0 if unknown
+
+    /**
+     * Constructor for class ImportReport
+     */
+    public ImportReport() {
+        added_ = new ArrayList<>();
+        conflicts_ = new ArrayList<>();
+        invalidLines_ = new ArrayList<>();
+    }
+
+    /**
+     * Records an event that was added to the calendar
+     * @param event the added event
+     */
+    public void addAdded(Event event) {
+        added_.add(event);
+    }
+
+    /**
+     * Records an event that was rejected because of a conflict
+     * @param event the rejected event
+     * @param conflict the event it conflicts with
+     */
+    public void addConflict(Event event, Event conflict) {
+        conflicts_.add(event.getName_() + " conflicts with " + conflict.getName_());
+    }
+
+    /**
+     * Records a line that could not be read
+     * @param lineNumber the line's number (starting at 1)
+     */
+    public void addInvalidLine(int lineNumber) {
+        invalidLines_.add(lineNumber);
+    }
+
+    /**
+     * Adds the added events, conflicts and invalid lines of another report, such as the report
+     * of one batch of a streamed import
+     * @param other the report being added
+     */
+    public void addReport(ImportReport other) {
+        added_.addAll(other.getAdded());
+        conflicts_.addAll(other.getConflicts());
+        invalidLines_.addAll(other.getInvalidLines());
+    }
+
+    /**
+     * Sets how fast the source of the import was read
+     * @param linesPerSecond the number of lines read per second
+     */
+    public void setLinesPerSecond(double linesPerSecond) {
+        linesPerSecond_ = linesPerSecond;
+    }
+
+    /**
+     * Gets how fast the source of the import was read
+     * @return the number of lines read per second, 0 if unknown
+     */
+    public double getLinesPerSecond() {
+        return linesPerSecond_;
+    }
+
+    /**
+     * Gets the events that were added
+     * @return a list of events
+     */
+    public ArrayList<Event> getAdded() {
+        return added_;
+    }
+
+    /**
+     * Gets the conflicts that were found
+     * @return a list of conflict descriptions
+     */
+    public ArrayList<String> getConflicts() {
+        return conflicts_;
+    }
+
+    /**
+     * Gets the lines that could not be read
+     * @return a list of line numbers
+     */
+    public ArrayList<Integer> getInvalidLines() {
+        return invalidLines_;
+    }
+
+    /**
+     * Checks if every event was imported
+     * @return a true/false boolean
+     */
+    public boolean isClean() {
+        return conflicts_.isEmpty() && invalidLines_.isEmpty();
+    }
+
+    /**
+     * Converts the report to a string, listing at most a few conflicts
+     * @return the report in the form of a string
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(added_.size()).append(" event(s) added, ")
+                .append(conflicts_.size()).append(" conflict(s), ")
+                .append(invalidLines_.size()).append(" invalid line(s).");
+        int shown = Math.min(conflicts_.size(), 10);
+        for (int i = 0; i < shown; i++) {
+            report.append("\n").append(conflicts_.get(i));
+        }
+        if (conflicts_.size() > shown) {
+            report.append("\n...and ").append(conflicts_.size() - shown).append(" more.");
+        }
+        if (!invalidLines_.isEmpty()) {
+            report.append("\nInvalid lines: ").append(invalidLines_.subList(0, Math.min(invalidLines_.size(), 10)));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,264 @@
+/**
+ * LoadDriver class that replays a mixed workload against CalendarDataModel
+ * without a window: adds, imports, navigation and view switches, each followed
+ * by the re-render a view would do. It reports the throughput and latency
+ * percentiles of every operation, for capacity planning.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Headless load driver. Usage: java LoadDriver [--option=value]...
+ * --seed=1 seeds both the events and the order of the operations,
+ * --events=10000 events are imported before the run,
+ * --ops=100000 operations are measured after --warmup=10000 unmeasured ones,
+ * --mix=add:20,import:1,nextDay:30,nextMonth:20,view:29 gives the relative weight of each operation,
+ * --import-size=1000 events are added by each import,
+ * --conflicts=0.05 of the generated events conflict with an earlier one,
+ * --columnar keeps the occurrences in off-heap columns (see CalendarCore)
+ */
+public class LoadDriver {
+    private static final String[] OPERATIONS = {"add", "import", "nextDay", "nextMonth", "view"};
+    private static final String[] VIEWS = {"day", "week", "month"};
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] PERCENTILE_NAMES = {"p50 us", "p90 us", "p99 us", "p99.9 us"};
+
+    private final CalendarDataModel model_;
+    private final WorkloadGenerator generator_;
+    private final SplittableRandom random_; //picks the operations, separate from the events
+    private final double[] mix_; //cumulative weight of each operation
+    private final int importSize_;
+    private LocalDate firstDate_;
+
+    /**
+     * Constructor for class LoadDriver
+     * @param model the model the workload runs against
+     * @param generator generates the events that are added and imported
+     * @param seed seeds the order of the operations
+     * @param mix the relative weight of each operation, in the order of OPERATIONS
+     * @param importSize the number of events each import adds
+     */
+    public LoadDriver(CalendarDataModel model, WorkloadGenerator generator, long seed, double[] mix, int importSize) {
+        model_ = model;
+        generator_ = generator;
+        random_ = new SplittableRandom(seed);
+        mix_ = new double[OPERATIONS.length];
+        double total = 0;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            total += mix[i];
+            mix_[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+        importSize_ = importSize;
+        //what the view would do on every change
+        model_.addChangeListener(e -> model_.getTextAreaContent());
+    }
+
+    /**
+     * Imports the calendar the workload starts from and moves the date to its first day
+     * @param events the number of events
+     * @return how long the import took in nanoseconds
+     */
+    public long setUp(int events) {
+        List<Event> initial = generator_.nextEvents(events);
+        long start = System.nanoTime();
+        model_.importEvents(initial);
+        long elapsed = System.nanoTime() - start;
+        firstDate_ = model_.getEvents().isEmpty() ? LocalDate.now()
+                : LocalDate.ofEpochDay(model_.getEvents().get(0).getFirstDay_());
+        model_.setDate(firstDate_);
+        return elapsed;
+    }
+
+    /**
+     * Runs a number of operations
+     * @param ops the number of operations
+     * @param latencies receives the latency of each operation in nanoseconds, or null to not measure
+     * @param kinds receives the index of each operation in OPERATIONS, or null
+     */
+    public void run(int ops, long[] latencies, byte[] kinds) {
+        for (int i = 0; i < ops; i++) {
+            int kind = pick();
+            Object input = prepare(kind);
+            long start = System.nanoTime();
+            perform(kind, input);
+            long elapsed = System.nanoTime() - start;
+            if (latencies != null) {
+                latencies[i] = elapsed;
+                kinds[i] = (byte) kind;
+            }
+        }
+    }
+
+    /**
+     * Picks the next operation from the mix
+     * @return the index of the operation in OPERATIONS
+     */
+    private int pick() {
+        double pick = random_.nextDouble() * mix_[mix_.length - 1];
+        int kind = 0;
+        while (pick >= mix_[kind]) {
+            kind++;
+        }
+        return kind;
+    }
+
+    /**
+     * Does the work an operation needs that is not part of its latency: generating the events
+     * and moving the date back to the start of the calendar once navigation has passed its end
+     * @param kind the index of the operation in OPERATIONS
+     * @return the operation's input
+     */
+    private Object prepare(int kind) {
+        return switch (OPERATIONS[kind]) {
+            case "add" -> generator_.nextEvent();
+            case "import" -> generator_.nextEvents(importSize_);
+            case "view" -> VIEWS[random_.nextInt(VIEWS.length)];
+            default -> {
+                if (model_.getDate().getYear() > generator_.getLastYear()) {
+                    model_.setDate(firstDate_);
+                }
+                yield null;
+            }
+        };
+    }
+
+    /**
+     * Runs one operation, which includes the re-render its change notification causes
+     * @param kind the index of the operation in OPERATIONS
+     * @param input the operation's input from prepare
+     */
+    @SuppressWarnings("unchecked")
+    private void perform(int kind, Object input) {
+        switch (OPERATIONS[kind]) {
+            case "add" -> model_.addEvent((Event) input);
+            case "import" -> model_.importEvents((List<Event>) input);
+            case "nextDay" -> model_.nextDay();
+            case "nextMonth" -> model_.nextMonth();
+            default -> model_.setView((String) input);
+        }
+    }
+
+    /**
+     * Prints the throughput and latency percentiles of every operation
+     * @param latencies the latency of each operation in nanoseconds
+     * @param kinds the index of each operation in OPERATIONS
+     * @param elapsedNanos the length of the whole run
+     */
+    private static void report(long[] latencies, byte[] kinds, long elapsedNanos) {
+        System.out.printf("%-10s %9s %12s", "operation", "count", "ops/s");
+        for (String percentileName : PERCENTILE_NAMES) {
+            System.out.printf(" %10s", percentileName);
+        }
+        System.out.printf(" %10s%n", "max us");
+        for (int kind = -1; kind < OPERATIONS.length; kind++) {
+            long[] own = new long[latencies.length];
+            int count = 0;
+            long total = 0;
+            for (int i = 0; i < latencies.length; i++) {
+                if (kind < 0 || kinds[i] == kind) {
+                    own[count++] = latencies[i];
+                    total += latencies[i];
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+            Arrays.sort(own, 0, count);
+            //an operation's throughput is how many of it would run per second back to back
+            double opsPerSecond = count * 1e9 / (kind < 0 ? elapsedNanos : Math.max(total, 1));
+            System.out.printf("%-10s %9d %12.1f", kind < 0 ? "all" : OPERATIONS[kind], count, opsPerSecond);
+            for (double percentile : PERCENTILES) {
+                int rank = (int) Math.ceil(percentile * count) - 1;
+                System.out.printf(" %10.1f", own[Math.max(rank, 0)] / 1e3);
+            }
+            System.out.printf(" %10.1f%n", own[count - 1] / 1e3);
+        }
+    }
+
+    /**
+     * Runs the workload described by the options and prints the report
+     * @param args options of the form --name=value (see the class comment)
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long seed = 1;
+        int events = 10_000;
+        int ops = 100_000;
+        int warmup = 10_000;
+        int importSize = 1000;
+        double conflicts = 0.05;
+        boolean columnar = false;
+        double[] mix = {20, 1, 30, 20, 29};
+        try {
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                String name = equals < 0 ? arg : arg.substring(0, equals);
+                String value = equals < 0 ? "" : arg.substring(equals + 1);
+                switch (name) {
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--events" -> events = Integer.parseInt(value);
+                    case "--ops" -> ops = Integer.parseInt(value);
+                    case "--warmup" -> warmup = Integer.parseInt(value);
+                    case "--import-size" -> importSize = Integer.parseInt(value);
+                    case "--conflicts" -> conflicts = Double.parseDouble(value);
+                    case "--columnar" -> columnar = true;
+                    case "--mix" -> mix = parseMix(value);
+                    case "--help" -> throw new IllegalArgumentException();
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+        }
+        catch (IllegalArgumentException exception) {
+            if (exception.getMessage() != null) {
+                System.out.println("Error: " + exception.getMessage());
+            }
+            System.out.println("Usage: java LoadDriver [--seed=1] [--events=10000] [--ops=100000] [--warmup=10000]"
+                    + " [--mix=add:20,import:1,nextDay:30,nextMonth:20,view:29] [--import-size=1000]"
+                    + " [--conflicts=0.05] [--columnar]");
+            return;
+        }
+
+        WorkloadGenerator generator = new WorkloadGenerator(seed);
+        generator.setConflictRate(conflicts);
+        CalendarDataModel model = new CalendarDataModel(new CalendarCore(columnar));
+        LoadDriver driver = new LoadDriver(model, generator, seed, mix, importSize);
+        long setUpNanos = driver.setUp(events);
+        System.out.printf("Imported %d events (%d kept) in %.1f ms%n", events, model.getEvents().size(),
+                setUpNanos / 1e6);
+
+        driver.run(warmup, null, null);
+        long[] latencies = new long[ops];
+        byte[] kinds = new byte[ops];
+        long start = System.nanoTime();
+        driver.run(ops, latencies, kinds);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Ran %d operations in %.1f ms, %d events in the calendar%n", ops, elapsed / 1e6,
+                model.getEvents().size());
+        report(latencies, kinds, elapsed);
+    }
+
+    /**
+     * Parses an operation mix such as add:20,view:29 (operations that are left out get no weight)
+     * @param mix the mix
+     * @return the weight of each operation, in the order of OPERATIONS
+     */
+    private static double[] parseMix(String mix) {
+        double[] weights = new double[OPERATIONS.length];
+        for (String part : mix.split(",")) {
+            int colon = part.indexOf(':');
+            int kind = colon < 0 ? -1 : Arrays.asList(OPERATIONS).indexOf(part.substring(0, colon));
+            if (kind < 0) {
+                throw new IllegalArgumentException("Invalid operation in mix: " + part);
+            }
+            weights[kind] = Double.parseDouble(part.substring(colon + 1));
+        }
+        return weights;
+    }
+}
@@ -4,6 +4,8 @@
  * @author Dimitar Dimitrov
  * @version 7/31/2021
  */
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Main tester class for the calendar program
@@ -14,7 +16,28 @@ public class Main {
      * @param args String args
      */
     public static void main(String[] args) {
-	    CalendarDataModel calendarDataModel = new CalendarDataModel();
+	    //-Dcalendar.columnar=true keeps the occurrences off-heap, for very large calendars
+	    boolean columnar = Boolean.getBoolean("calendar.columnar");
+	    CalendarCore calendarCore;
+	    try {
+	        //events are kept between runs in the user's home directory
+	        EventStore eventStore = new EventStore(Path.of(System.getProperty("user.home"), ".calendar-project"));
+	        calendarCore = eventStore.load(new CalendarCore(columnar));
+	    }
+	    catch (IOException exception) {
+	        System.out.println("Error: could not open the event store, events will not be saved.");
+	        calendarCore = new CalendarCore(columnar);
+	    }
+	    //-Dcalendar.metrics=true shows latencies and sizes in JConsole/JMC, measured operations in Flight Recorder
+	    if (Boolean.getBoolean("calendar.metrics")) {
+	        try {
+	            CalendarMetrics.register(calendarCore);
+	        }
+	        catch (IllegalStateException exception) {
+	            System.out.println("Error: could not register the calendar metrics, they will not be recorded.");
+	        }
+	    }
+	    CalendarDataModel calendarDataModel = new CalendarDataModel(calendarCore);
 	    CalendarView calendarView = new CalendarView(calendarDataModel);
 	    calendarView.displayView();
     }
@@ -0,0 +1,92 @@
+/**
+ * Occurrence class that pairs an event with one of the days it occurs on.
+ * Queries on the calendar's core return occurrences instead of formatted text.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.time.LocalDate;
+
+/**
+ * A single occurrence of an event, referencing the event instead of copying it
+ */
+public class Occurrence implements Comparable<Occurrence> {
+    private final Event event_;
+    private final long epochDay_;
+
+    /**
+     * Constructor for class Occurrence
+     * @param event the event that occurs
+     * @param epochDay the day it occurs on, counted from 1970-01-01
+     */
+    public Occurrence(Event event, long epochDay) {
+        event_ = event;
+        epochDay_ = epochDay;
+    }
+
+    /**
+     * Gets the event that occurs
+     * @return the event
+     */
+    public Event getEvent() {
+        return event_;
+    }
+
+    /**
+     * Gets the day of the occurrence
+     * @return the epoch day
+     */
+    public long getEpochDay() {
+        return epochDay_;
+    }
+
+    /**
+     * Gets the date of the occurrence
+     * @return a local date
+     */
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(epochDay_);
+    }
+
+    /**
+     * Gets the occurrence packed with its time interval (see PackedTime)
+     * @return the packed occurrence
+     */
+    public long getPacked() {
+        return PackedTime.pack(epochDay_, event_.getTimeInterval_().getPacked());
+    }
+
+    /**
+     * Gets the event's name
+     * @return the event's name
+     */
+    public String getName() {
+        return event_.getName_();
+    }
+
+    /**
+     * Gets the event's time interval
+     * @return the event's time interval
+     */
+    public TimeInterval getTimeInterval() {
+        return event_.getTimeInterval_();
+    }
+
+    /**
+     * Converts the occurrence to string
+     * @return the occurrence in the form of a string
+     */
+    @Override
+    public String toString() {
+        return event_.toString();
+    }
+
+    /**
+     * Compares two occurrences by day, then by start time
+     * @param o The other occurrence
+     * @return an integer based on the two occurrences being compared
+     */
+    @Override
+    public int compareTo(Occurrence o) {
+        return Long.compare(getPacked(), o.getPacked());
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * OccurrenceCursor class, a reusable view of one occurrence at a time. It
+ * references the event and holds the day as a primitive, so walking the
+ * occurrences of a range creates no object per occurrence.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.time.LocalDate;
+
+/**
+ * Points at the occurrence being visited. The cursor is moved to the next occurrence after the visitor
+ * returns, so it must not be kept; toOccurrence copies the occurrence it points at
+ */
+public class OccurrenceCursor {
+    private Event event_;
+    private long epochDay_;
+
+    /**
+     * Moves the cursor to an occurrence
+     * @param event the event that occurs
+     * @param epochDay the day it occurs on, counted from 1970-01-01
+     * @return this cursor
+     */
+    OccurrenceCursor moveTo(Event event, long epochDay) {
+        event_ = event;
+        epochDay_ = epochDay;
+        return this;
+    }
+
+    /**
+     * Gets the event that occurs
+     * @return the event
+     */
+    public Event getEvent() {
+        return event_;
+    }
+
+    /**
+     * Gets the day of the occurrence
+     * @return the epoch day
+     */
+    public long getEpochDay() {
+        return epochDay_;
+    }
+
+    /**
+     * Gets the date of the occurrence
+     * @return a local date
+     */
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(epochDay_);
+    }
+
+    /**
+     * Gets the occurrence packed with its time interval (see PackedTime)
+     * @return the packed occurrence
+     */
+    public long getPacked() {
+        return PackedTime.pack(epochDay_, event_.getTimeInterval_().getPacked());
+    }
+
+    /**
+     * Gets the event's name
+     * @return the event's name
+     */
+    public String getName() {
+        return event_.getName_();
+    }
+
+    /**
+     * Gets the event's time interval
+     * @return the event's time interval
+     */
+    public TimeInterval getTimeInterval() {
+        return event_.getTimeInterval_();
+    }
+
+    /**
+     * Appends the occurrence as "name: H:MM-H:MM", the same text as toString, without creating strings
+     * @param text the text being built
+     * @return the text
+     */
+    public StringBuilder appendTo(StringBuilder text) {
+        text.append(event_.getName_()).append(": ");
+        PackedTime.appendInterval(text, event_.getTimeInterval_().getPacked());
+        return text;
+    }
+
+    /**
+     * Copies the occurrence the cursor points at, for keeping it after the visit
+     * @return a new occurrence
+     */
+    public Occurrence toOccurrence() {
+        return new Occurrence(event_, epochDay_);
+    }
+
+    /**
+     * Converts the occurrence to string
+     * @return the occurrence in the form of a string
+     */
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder()).toString();
+    }
+}
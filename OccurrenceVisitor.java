@@ -0,0 +1,19 @@
+/**
+ * OccurrenceVisitor interface for ColumnarOccurrenceStore, which hands
+ * occurrences to the visitor as primitives instead of creating objects
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+
+/**
+ * Receives occurrences one at a time
+ */
+public interface OccurrenceVisitor {
+    /**
+     * Visits one occurrence
+     * @param packed the occurrence's day and time interval (see PackedTime)
+     * @param nameId the event's name in the store's string table
+     * @param eventId the event in the store's event table
+     */
+    void visit(long packed, int nameId, int eventId);
+}
@@ -0,0 +1,75 @@
+/**
+ * OperationStats class for CalendarMetrics: a snapshot of how often an
+ * operation ran and how long it took, as shown by JMX clients.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.beans.ConstructorProperties;
+
+/**
+ * Models the statistics of one operation at one point in time
+ */
+public class OperationStats {
+    private final long count_;
+    private final long items_;
+    private final double p50Micros_;
+    private final double p99Micros_;
+    private final double maxMicros_;
+
+    /**
+     * Constructor for class OperationStats
+     * @param count the number of times the operation ran
+     * @param items the number of items (events, days, listeners...) the operation handled
+     * @param p50Micros the median latency in microseconds
+     * @param p99Micros the 99th percentile latency in microseconds
+     * @param maxMicros the highest latency in microseconds
+     */
+    @ConstructorProperties({"count", "items", "p50Micros", "p99Micros", "maxMicros"})
+    public OperationStats(long count, long items, double p50Micros, double p99Micros, double maxMicros) {
+        count_ = count;
+        items_ = items;
+        p50Micros_ = p50Micros;
+        p99Micros_ = p99Micros;
+        maxMicros_ = maxMicros;
+    }
+
+    /**
+     * Gets the number of times the operation ran
+     * @return the count
+     */
+    public long getCount() {
+        return count_;
+    }
+
+    /**
+     * Gets the number of items the operation handled
+     * @return the number of items
+     */
+    public long getItems() {
+        return items_;
+    }
+
+    /**
+     * Gets the median latency
+     * @return the latency in microseconds
+     */
+    public double getP50Micros() {
+        return p50Micros_;
+    }
+
+    /**
+     * Gets the 99th percentile latency
+     * @return the latency in microseconds
+     */
+    public double getP99Micros() {
+        return p99Micros_;
+    }
+
+    /**
+     * Gets the highest latency
+     * @return the latency in microseconds
+     */
+    public double getMaxMicros() {
+        return maxMicros_;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * PackedTime class with helpers for the packed primitive encoding of an
+ * occurrence: the epoch day, start minute and end minute in a single long.
+ * Packed values sort by day, then start, then end with a plain long comparison.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+
+/**
+ * Packs and unpacks occurrences as [epoch day][11 bit start minute][11 bit end minute]
+ */
+public final class PackedTime {
+    public static final int MINUTES_IN_DAY = 24 * 60;
+
+    private static final int MINUTE_BITS = 11; //enough for 0-1440
+    private static final int MINUTE_MASK = (1 << MINUTE_BITS) - 1;
+
+    /**
+     * Not instantiated, only holds static helpers
+     */
+    private PackedTime() {
+    }
+
+    /**
+     * Packs a start and end minute into an int
+     * @param startMinute minutes after midnight the interval starts at (0-1440)
+     * @param endMinute minutes after midnight the interval ends at (0-1440)
+     * @return the packed interval
+     */
+    public static int packInterval(int startMinute, int endMinute) {
+        return (startMinute & MINUTE_MASK) << MINUTE_BITS | (endMinute & MINUTE_MASK);
+    }
+
+    /**
+     * Packs a day and a packed interval into a long
+     * @param epochDay a day counted from 1970-01-01
+     * @param interval an interval from packInterval
+     * @return the packed occurrence
+     */
+    public static long pack(long epochDay, int interval) {
+        return epochDay << (2 * MINUTE_BITS) | interval;
+    }
+
+    /**
+     * Packs a day, start minute and end minute into a long
+     * @param epochDay a day counted from 1970-01-01
+     * @param startMinute minutes after midnight the occurrence starts at (0-1440)
+     * @param endMinute minutes after midnight the occurrence ends at (0-1440)
+     * @return the packed occurrence
+     */
+    public static long pack(long epochDay, int startMinute, int endMinute) {
+        return pack(epochDay, packInterval(startMinute, endMinute));
+    }
+
+    /**
+     * Gets the day of a packed occurrence
+     * @param packed a packed occurrence
+     * @return the epoch day
+     */
+    public static long day(long packed) {
+        return packed >> (2 * MINUTE_BITS);
+    }
+
+    /**
+     * Gets the interval of a packed occurrence
+     * @param packed a packed occurrence
+     * @return the packed interval
+     */
+    public static int interval(long packed) {
+        return (int) packed & ((1 << (2 * MINUTE_BITS)) - 1);
+    }
+
+    /**
+     * Gets the start minute of a packed interval or occurrence
+     * @param packed a packed interval or occurrence
+     * @return minutes after midnight
+     */
+    public static int startMinute(long packed) {
+        return (int) (packed >> MINUTE_BITS) & MINUTE_MASK;
+    }
+
+    /**
+     * Gets the end minute of a packed interval or occurrence
+     * @param packed a packed interval or occurrence
+     * @return minutes after midnight
+     */
+    public static int endMinute(long packed) {
+        return (int) packed & MINUTE_MASK;
+    }
+
+    /**
+     * Checks if two packed intervals overlap, with the same rules as TimeInterval.overLapsWith
+     * @param interval a packed interval
+     * @param other the other packed interval
+     * @return True/False boolean
+     */
+    public static boolean overlaps(int interval, int other) {
+        int end = endMinute(interval);
+        int otherStart = startMinute(other);
+        int otherEnd = endMinute(other);
+        return end == otherEnd || (end > otherStart && end < otherEnd)
+                || (otherEnd > startMinute(interval) && otherEnd < end);
+    }
+
+    /**
+     * Checks if two packed occurrences are on the same day and overlap
+     * @param packed a packed occurrence
+     * @param other the other packed occurrence
+     * @return True/False boolean
+     */
+    public static boolean overlaps(long packed, long other) {
+        return day(packed) == day(other) && overlaps(interval(packed), interval(other));
+    }
+
+    /**
+     * Formats minutes after midnight as H:MM
+     * @param minute minutes after midnight
+     * @return the formatted time
+     */
+    public static String formatMinute(int minute) {
+        int minutes = minute % 60;
+        return minute / 60 + (minutes < 10 ? ":0" : ":") + minutes;
+    }
+
+    /**
+     * Appends a packed interval as H:MM-H:MM without creating strings
+     * @param text the text being built
+     * @param interval a packed interval
+     */
+    public static void appendInterval(StringBuilder text, int interval) {
+        appendMinute(text, startMinute(interval));
+        appendMinute(text.append('-'), endMinute(interval));
+    }
+
+    /**
+     * Reads a time written as H or H:MM
+     * @param text the time
+     * @return minutes after midnight
+     * @throws NumberFormatException if the text is not a time between 0:00 and 24:00
+     */
+    public static int parseMinute(String text) {
+        String trimmed = text.trim();
+        int colon = trimmed.indexOf(':');
+        int hours = Integer.parseInt(colon < 0 ? trimmed : trimmed.substring(0, colon));
+        int minutes = colon < 0 ? 0 : Integer.parseInt(trimmed.substring(colon + 1));
+        int minute = hours * 60 + minutes;
+        if (hours < 0 || minutes < 0 || minutes > 59 || minute > MINUTES_IN_DAY) {
+            throw new NumberFormatException("Invalid time: " + text);
+        }
+        return minute;
+    }
+
+    /**
+     * Appends minutes after midnight as H:MM
+     * @param text the text being built
+     * @param minute minutes after midnight
+     */
+    private static void appendMinute(StringBuilder text, int minute) {
+        int minutes = minute % 60;
+        text.append(minute / 60).append(minutes < 10 ? ":0" : ":").append(minutes);
+    }
+}
@@ -6,15 +6,23 @@
  */
 import java.awt.*;
 import java.util.*;
+import java.util.List;
 import javax.swing.*;
 
 /**
- * Stores multiple shape objects in a list and paints the icons
+ * Stores multiple shape objects in a list and paints the icons.
+ * Clicks are matched to the shapes' hit regions through a uniform grid: each cell lists the
+ * regions that overlap it, so a click only looks at the few regions of its own cell
  */
 public class ShapeIcon implements Icon {
+    private static final int CELL_SIZE = 16; //side of a grid cell in pixels
+
     private final ArrayList<ShapeObject> shapeObjectList;
     private final int width;
     private final int height;
+    private final int columns, rows;
+    private List<List<HitRegion>> cells; //regions overlapping each cell (null if none), in drawing order
+    private List<List<HitRegion>> indexedRegions; //the region list of each shape the grid was built from
 
     /**
      * Constructor for class ShapeIcon
@@ -27,6 +35,34 @@ public class ShapeIcon implements Icon {
         this.shapeObjectList = shapeObjectList;
         this.width = width;
         this.height = height;
+        columns = (width + CELL_SIZE - 1) / CELL_SIZE;
+        rows = (height + CELL_SIZE - 1) / CELL_SIZE;
+    }
+
+    /**
+     * Finds the clickable part of a shape at a point, rebuilding the grid first if a shape's
+     * layout changed. Shapes drawn later are on top of shapes drawn earlier
+     * @param x the point's x
+     * @param y the point's y
+     * @return the topmost region at the point, or null if there is none
+     */
+    public HitRegion hitTest(int x, int y)
+    {
+        if (x < 0 || y < 0 || x >= columns * CELL_SIZE || y >= rows * CELL_SIZE) {
+            return null;
+        }
+        if (isIndexStale()) {
+            buildIndex();
+        }
+        List<HitRegion> cell = cells.get((y / CELL_SIZE) * columns + x / CELL_SIZE);
+        if (cell != null) {
+            for (int i = cell.size() - 1; i >= 0; i--) {
+                if (cell.get(i).contains(x, y)) {
+                    return cell.get(i);
+                }
+            }
+        }
+        return null;
     }
 
     /**
@@ -59,9 +95,58 @@ public class ShapeIcon implements Icon {
     @Override
     public void paintIcon(Component c, Graphics g, int x, int y)
     {
+        CalendarMetrics.OperationEvent metrics = CalendarMetrics.begin();
         Graphics2D g2 = (Graphics2D)g;
         for(ShapeObject shape : shapeObjectList) {
             shape.draw(g2);
         }
+        CalendarMetrics.PAINT_ICON.end(metrics, shapeObjectList.size());
+    }
+
+    /**
+     * Checks if any shape's regions changed since the grid was built
+     * @return True/False boolean
+     */
+    private boolean isIndexStale()
+    {
+        if (indexedRegions == null || indexedRegions.size() != shapeObjectList.size()) {
+            return true;
+        }
+        for (int i = 0; i < indexedRegions.size(); i++) {
+            if (shapeObjectList.get(i).getHitRegions() != indexedRegions.get(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts every region of every shape into the grid cells it overlaps
+     */
+    private void buildIndex()
+    {
+        cells = new ArrayList<>(Collections.nCopies(columns * rows, null));
+        indexedRegions = new ArrayList<>(shapeObjectList.size());
+        for (ShapeObject shape : shapeObjectList) {
+            List<HitRegion> regions = shape.getHitRegions();
+            indexedRegions.add(regions);
+            for (HitRegion region : regions) {
+                Rectangle bounds = region.getBounds_();
+                //edges are part of a region, so the last column and row are at x + width and y + height
+                int firstColumn = Math.max(0, bounds.x / CELL_SIZE);
+                int lastColumn = Math.min(columns - 1, (bounds.x + bounds.width) / CELL_SIZE);
+                int firstRow = Math.max(0, bounds.y / CELL_SIZE);
+                int lastRow = Math.min(rows - 1, (bounds.y + bounds.height) / CELL_SIZE);
+                for (int row = firstRow; row <= lastRow; row++) {
+                    for (int column = firstColumn; column <= lastColumn; column++) {
+                        int cell = row * columns + column;
+                        if (cells.get(cell) == null) {
+                            cells.set(cell, new ArrayList<>(4));
+                        }
+                        cells.get(cell).add(region);
+                    }
+                }
+            }
+        }
     }
 }
@@ -4,9 +4,10 @@
  * @version 7/31/2021
  */
 import java.awt.*;
+import java.util.List;
 
 /**
- * A shape object that can be drawn and moved
+ * A shape object that can be drawn, moved and clicked
  */
 public interface ShapeObject
 {
@@ -22,4 +23,35 @@ public interface ShapeObject
      * @param y y position to translate by
      */
     void translate(double x, double y);
-}
\ No newline at end of file
+
+    /**
+     * Gets the area the shape object draws in
+     * @return the shape's bounds (must not be changed)
+     */
+    Rectangle getBounds();
+
+    /**
+     * Gets the clickable parts of the shape object. A shape returns the same list until its
+     * layout changes, so indexes built from the list know when to rebuild
+     * @return the shape's regions, later regions on top of earlier ones (must not be changed)
+     */
+    default List<HitRegion> getHitRegions() {
+        return List.of();
+    }
+
+    /**
+     * Finds the clickable part of the shape object at a point
+     * @param x the point's x
+     * @param y the point's y
+     * @return the topmost region at the point, or null if there is none
+     */
+    default HitRegion hitTest(int x, int y) {
+        List<HitRegion> regions = getHitRegions();
+        for (int i = regions.size() - 1; i >= 0; i--) {
+            if (regions.get(i).contains(x, y)) {
+                return regions.get(i);
+            }
+        }
+        return null;
+    }
+}
@@ -7,20 +7,62 @@
  */
 
 /**
- * Creates a time interval object that consists of a starting time and ending time
+ * Creates a time interval object that consists of a starting time and ending time.
+ * The times are kept to the minute, packed into one int (see PackedTime)
  */
 public class TimeInterval implements Comparable {
-    private final int startTime_;
-    private final int endTime_;
+    private final int packed_; //start and end minute, see PackedTime.packInterval
 
     /**
      * Constructor for class TimeInterval
      * @param startHour The starting hour of the interval
      * @param endHour The ending hour of the interval
+     * @throws IllegalArgumentException if the hours are not between 0 and 24 or the start is not before the end
      */
     public TimeInterval(int startHour, int endHour) {
-        startTime_ = startHour;
-        endTime_ = endHour;
+        this(pack(startHour * 60L, endHour * 60L)); //in longs, so huge hours cannot wrap into range
+    }
+
+    /**
+     * Constructor for class TimeInterval that takes a packed interval
+     * @param packed The packed start and end minute
+     */
+    private TimeInterval(int packed) {
+        packed_ = packed;
+    }
+
+    /**
+     * Creates a time interval from minutes after midnight
+     * @param startMinute The starting minute of the interval (0-1440)
+     * @param endMinute The ending minute of the interval (0-1440)
+     * @return the time interval
+     * @throws IllegalArgumentException if the minutes are not between 0 and 1440 or the start is not before the end
+     */
+    public static TimeInterval ofMinutes(int startMinute, int endMinute) {
+        return new TimeInterval(pack(startMinute, endMinute));
+    }
+
+    /**
+     * Creates a time interval from a packed interval
+     * @param packed a packed interval from PackedTime.packInterval
+     * @return the time interval
+     */
+    public static TimeInterval ofPacked(int packed) {
+        return new TimeInterval(packed);
+    }
+
+    /**
+     * Packs a start and end minute, which packInterval would otherwise wrap silently
+     * @param startMinute The starting minute of the interval
+     * @param endMinute The ending minute of the interval
+     * @return the packed interval
+     * @throws IllegalArgumentException if the minutes are not between 0 and 1440 or the start is not before the end
+     */
+    private static int pack(long startMinute, long endMinute) {
+        if (startMinute < 0 || endMinute > PackedTime.MINUTES_IN_DAY || startMinute >= endMinute) {
+            throw new IllegalArgumentException("Invalid time interval: " + startMinute + "-" + endMinute + " minutes");
+        }
+        return PackedTime.packInterval((int) startMinute, (int) endMinute);
     }
 
     /**
@@ -29,24 +71,47 @@ public class TimeInterval implements Comparable {
      * @return True/False boolean
      */
     public boolean overLapsWith(TimeInterval other) {
-        return (endTime_ == other.getEndTime_()) || (endTime_ > other.getStartTime_() && endTime_ < other.getEndTime_())
-                || (other.getEndTime_() > startTime_ && other.getEndTime_() < endTime_);
+        return PackedTime.overlaps(packed_, other.getPacked());
     }
 
     /**
      * Gets the starting time of the interval
-     * @return The start time
+     * @return The start time (hour)
      */
     public int getStartTime_() {
-        return startTime_;
+        return getStartMinute_() / 60;
     }
 
     /**
      * Gets the ending time of the interval
-     * @return The end time
+     * @return The end time (hour)
      */
     public int getEndTime_() {
-        return endTime_;
+        return getEndMinute_() / 60;
+    }
+
+    /**
+     * Gets the starting minute of the interval
+     * @return minutes after midnight
+     */
+    public int getStartMinute_() {
+        return PackedTime.startMinute(packed_);
+    }
+
+    /**
+     * Gets the ending minute of the interval
+     * @return minutes after midnight
+     */
+    public int getEndMinute_() {
+        return PackedTime.endMinute(packed_);
+    }
+
+    /**
+     * Gets the packed start and end minute
+     * @return the packed interval
+     */
+    public int getPacked() {
+        return packed_;
     }
 
     /**
@@ -55,7 +120,9 @@ public class TimeInterval implements Comparable {
      */
     @Override
     public String toString() {
-        return startTime_ + ":00-" + endTime_ + ":00";
+        StringBuilder text = new StringBuilder(11);
+        PackedTime.appendInterval(text, packed_);
+        return text.toString();
     }
 
     /**
@@ -66,6 +133,6 @@ public class TimeInterval implements Comparable {
     @Override
     public int compareTo(Object o) {
         TimeInterval other = (TimeInterval) o;
-        return startTime_ - other.getStartTime_();
+        return getStartMinute_() - other.getStartMinute_();
     }
 }
@@ -0,0 +1,338 @@
+/**
+ * WorkloadGenerator class that produces synthetic calendars in the recurring
+ * event format (see input.txt), so calendars the size of production ones can
+ * be built and replayed locally. The same seed and settings always produce
+ * the same lines.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates recurring events with a configurable weekday mix, start hour distribution, length and
+ * conflict rate. Events that are not meant to conflict are placed in free (month, weekday, hour) cells,
+ * so they never collide with each other; a conflicting event copies the month range and days of an
+ * earlier event and overlaps its hours, so exactly the requested share of the events is rejected
+ */
+public class WorkloadGenerator {
+    private static final int MONTHS = 11; //a rule ends before its end month, which is at most 12
+    private static final int CELLS_PER_MONTH = 7 * 24; //weekday x hour
+    private static final int PLACEMENT_ATTEMPTS = 64; //random placements tried before adding a year
+
+    private final SplittableRandom random_;
+    private final BitSet taken_; //cell (year, month, weekday, hour) -> taken by a generated event
+    private final ArrayList<int[]> placed_; //year, startMonth, endMonth, dayMask, startHour, endHour
+    private int[] dayMasks_; //masks picked from uniformly, empty for random masks of 1-3 days
+    private double[] hourWeights_; //relative chance of each start hour
+    private double hourWeightTotal_;
+    private int minHours_;
+    private int maxHours_;
+    private int maxMonths_;
+    private double conflictRate_;
+    private int firstYear_;
+    private int years_; //years events are spread over, grows when they are full
+    private int count_; //lines generated so far
+
+    /**
+     * Constructor for class WorkloadGenerator: events mostly start in office hours, take 1-2 hours,
+     * recur on 1-3 random days of the week over up to 3 months starting in 2026, and never conflict
+     * @param seed the seed of the generator
+     */
+    public WorkloadGenerator(long seed) {
+        random_ = new SplittableRandom(seed);
+        taken_ = new BitSet();
+        placed_ = new ArrayList<>();
+        dayMasks_ = new int[0];
+        double[] officeHours = new double[24];
+        Arrays.fill(officeHours, 8, 18, 4.0);
+        Arrays.fill(officeHours, 6, 8, 1.0);
+        Arrays.fill(officeHours, 18, 22, 1.0);
+        setHourWeights(officeHours);
+        minHours_ = 1;
+        maxHours_ = 2;
+        maxMonths_ = 3;
+        firstYear_ = 2026;
+        years_ = 1;
+    }
+
+    /**
+     * Sets the weekday masks events are given, picked from uniformly
+     * @param dayMasks masks where bit n stands for DayOfWeek n, none for random masks of 1-3 days
+     */
+    public void setDayMasks(int... dayMasks) {
+        for (int dayMask : dayMasks) {
+            if ((dayMask & Event.ALL_DAYS) == 0 || (dayMask & ~Event.ALL_DAYS) != 0) {
+                throw new IllegalArgumentException("Invalid day mask: " + Integer.toBinaryString(dayMask));
+            }
+        }
+        dayMasks_ = dayMasks.clone();
+    }
+
+    /**
+     * Sets how likely each hour is to be an event's start hour
+     * @param hourWeights 24 non-negative weights, not all 0
+     */
+    public void setHourWeights(double[] hourWeights) {
+        if (hourWeights.length != 24 || Arrays.stream(hourWeights).anyMatch(w -> w < 0)
+                || Arrays.stream(hourWeights).sum() <= 0) {
+            throw new IllegalArgumentException("Expected 24 non-negative hour weights");
+        }
+        hourWeights_ = hourWeights.clone();
+        hourWeightTotal_ = Arrays.stream(hourWeights).sum();
+    }
+
+    /**
+     * Sets how long events are (cut off at midnight)
+     * @param minHours the shortest length in hours
+     * @param maxHours the longest length in hours
+     */
+    public void setLength(int minHours, int maxHours) {
+        if (minHours < 1 || maxHours < minHours || maxHours > 24) {
+            throw new IllegalArgumentException("Invalid length: " + minHours + "-" + maxHours);
+        }
+        minHours_ = minHours;
+        maxHours_ = maxHours;
+    }
+
+    /**
+     * Sets how many months an event recurs over at most
+     * @param maxMonths 1 to 11
+     */
+    public void setMaxMonths(int maxMonths) {
+        if (maxMonths < 1 || maxMonths > MONTHS) {
+            throw new IllegalArgumentException("Invalid month count: " + maxMonths);
+        }
+        maxMonths_ = maxMonths;
+    }
+
+    /**
+     * Sets the share of generated events that conflict with an earlier event
+     * @param conflictRate 0 to 1
+     */
+    public void setConflictRate(double conflictRate) {
+        if (conflictRate < 0 || conflictRate > 1) {
+            throw new IllegalArgumentException("Invalid conflict rate: " + conflictRate);
+        }
+        conflictRate_ = conflictRate;
+    }
+
+    /**
+     * Sets the first year events recur in; later years are used as the earlier ones fill up
+     * @param firstYear the year
+     */
+    public void setFirstYear(int firstYear) {
+        firstYear_ = firstYear;
+    }
+
+    /**
+     * Gets the last year the events generated so far recur in
+     * @return the year
+     */
+    public int getLastYear() {
+        return firstYear_ + years_ - 1;
+    }
+
+    /**
+     * Generates the next line of the recurring event format
+     * @return a line such as "Event 12;2026;3;5;MW;9;10;"
+     */
+    public String nextLine() {
+        count_++;
+        int[] fields = !placed_.isEmpty() && random_.nextDouble() < conflictRate_ ? conflicting() : place();
+        StringBuilder line = new StringBuilder(40);
+        line.append("Event ").append(count_).append(';').append(fields[0]).append(';').append(fields[1])
+                .append(';').append(fields[2]).append(';');
+        for (int day = 1; day <= 7; day++) {
+            if ((fields[3] & (1 << day)) != 0) {
+                line.append(Event.DAY_ABBREVS.charAt(day));
+            }
+        }
+        return line.append(';').append(fields[4]).append(';').append(fields[5]).append(';').toString();
+    }
+
+    /**
+     * Generates the next event
+     * @return the event of the next line
+     */
+    public Event nextEvent() {
+        return EventFileParser.parseLine(nextLine());
+    }
+
+    /**
+     * Generates a number of events
+     * @param count the number of events
+     * @return the events of the next lines
+     */
+    public List<Event> nextEvents(int count) {
+        ArrayList<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(nextEvent());
+        }
+        return events;
+    }
+
+    /**
+     * Writes a number of lines to a file, replacing the file if it exists
+     * @param path the file being written
+     * @param count the number of lines
+     * @throws IOException if the file cannot be written
+     */
+    public void writeFile(Path path, int count) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < count; i++) {
+                writer.write(nextLine());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Picks the fields of an event that conflicts with an earlier one
+     * @return year, startMonth, endMonth, dayMask, startHour and endHour
+     */
+    private int[] conflicting() {
+        int[] fields = placed_.get(random_.nextInt(placed_.size())).clone();
+        int hour = fields[4] + random_.nextInt(fields[5] - fields[4]); //an hour the earlier event takes
+        int length = minHours_ + random_.nextInt(maxHours_ - minHours_ + 1);
+        fields[4] = Math.max(0, Math.min(hour, 24 - length));
+        fields[5] = fields[4] + length; //starts at or before the hour and ends after it
+        return fields;
+    }
+
+    /**
+     * Picks the fields of an event that conflicts with no earlier event, marking its cells as taken
+     * @return year, startMonth, endMonth, dayMask, startHour and endHour
+     */
+    private int[] place() {
+        int dayMask = dayMasks_.length > 0 ? dayMasks_[random_.nextInt(dayMasks_.length)] : randomDayMask();
+        int startHour = startHour();
+        int endHour = Math.min(24, startHour + minHours_ + random_.nextInt(maxHours_ - minHours_ + 1));
+        int months = 1 + random_.nextInt(maxMonths_);
+        while (true) {
+            for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS; attempt++) {
+                int year = random_.nextInt(years_);
+                int startMonth = 1 + random_.nextInt(MONTHS - months + 1);
+                if (isFree(year, startMonth, months, dayMask, startHour, endHour)) {
+                    setTaken(year, startMonth, months, dayMask, startHour, endHour);
+                    int[] fields = {firstYear_ + year, startMonth, startMonth + months, dayMask, startHour, endHour};
+                    placed_.add(fields);
+                    return fields;
+                }
+            }
+            years_++; //the years so far are too full, spread the events over one more
+        }
+    }
+
+    /**
+     * Picks a random mask of 1-3 days of the week
+     * @return the day mask
+     */
+    private int randomDayMask() {
+        int dayMask = 0;
+        int days = 1 + random_.nextInt(3);
+        while (Integer.bitCount(dayMask) < days) {
+            dayMask |= 1 << (1 + random_.nextInt(7));
+        }
+        return dayMask;
+    }
+
+    /**
+     * Picks a start hour from the hour weights
+     * @return an hour from 0 to 23
+     */
+    private int startHour() {
+        double pick = random_.nextDouble() * hourWeightTotal_;
+        for (int hour = 0; hour < 23; hour++) {
+            pick -= hourWeights_[hour];
+            if (pick < 0) {
+                return hour;
+            }
+        }
+        return 23;
+    }
+
+    /**
+     * Checks if all the cells of an event are free
+     * @param year the year, counted from the first year
+     * @param startMonth the first month
+     * @param months the number of months
+     * @param dayMask the days of the week
+     * @param startHour the first hour
+     * @param endHour the hour after the last one
+     * @return a true/false boolean
+     */
+    private boolean isFree(int year, int startMonth, int months, int dayMask, int startHour, int endHour) {
+        for (int month = startMonth; month < startMonth + months; month++) {
+            for (int day = 1; day <= 7; day++) {
+                if ((dayMask & (1 << day)) != 0) {
+                    int cell = cell(year, month, day, startHour);
+                    int next = taken_.nextSetBit(cell);
+                    if (next >= 0 && next < cell + endHour - startHour) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks all the cells of an event as taken
+     * @param year the year, counted from the first year
+     * @param startMonth the first month
+     * @param months the number of months
+     * @param dayMask the days of the week
+     * @param startHour the first hour
+     * @param endHour the hour after the last one
+     */
+    private void setTaken(int year, int startMonth, int months, int dayMask, int startHour, int endHour) {
+        for (int month = startMonth; month < startMonth + months; month++) {
+            for (int day = 1; day <= 7; day++) {
+                if ((dayMask & (1 << day)) != 0) {
+                    int cell = cell(year, month, day, startHour);
+                    taken_.set(cell, cell + endHour - startHour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the index of a cell
+     * @param year the year, counted from the first year
+     * @param month the month (1-11)
+     * @param day the DayOfWeek value
+     * @param hour the hour
+     * @return the bit of the cell in taken_
+     */
+    private static int cell(int year, int month, int day, int hour) {
+        return (year * MONTHS + month - 1) * CELLS_PER_MONTH + (day - 1) * 24 + hour;
+    }
+
+    /**
+     * Writes a synthetic calendar file
+     * @param args the file, the number of events, and optionally the seed and conflict rate
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java WorkloadGenerator <file> <events> [seed] [conflictRate]");
+            return;
+        }
+        try {
+            WorkloadGenerator generator = new WorkloadGenerator(args.length > 2 ? Long.parseLong(args[2]) : 1);
+            generator.setConflictRate(args.length > 3 ? Double.parseDouble(args[3]) : 0);
+            generator.writeFile(Path.of(args[0]), Integer.parseInt(args[1]));
+        }
+        catch (IOException | IllegalArgumentException exception) {
+            System.out.println("Error: could not generate the calendar: " + exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Benchmark fixture that builds synthetic calendars and runs the calendar's
+ * hot paths for the JMH benchmarks in calendar.bench
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import calendar.bench.CalendarFixture;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implements CalendarFixture on top of CalendarDataModel, Event and the shapes
+ */
+public class CalendarBenchmarkFixture implements CalendarFixture {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 1, 1);
+    private static final int LINES = 1024;
+
+    private CalendarDataModel model;
+    private long nextDay; //epoch day of the next event added by addEvent
+    private int nextHour;
+    private boolean forward; //render alternates between moving forward and back
+    private String[] lines;
+    private int lineCounter;
+    private Event[] recurring;
+    private int pairCounter;
+    private CalendarShape calendarShape;
+    private ClockShape clockShape;
+    private Graphics2D graphics;
+    private CalendarRegistry registry;
+    private List<String> ids;
+    private int queryCounter;
+
+    /**
+     * Builds a calendar with one-hour events filling the days from 2021-01-01 onward
+     * @param events the number of events in the calendar
+     */
+    @Override
+    public void setUp(int events) {
+        ArrayList<Event> newEvents = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            newEvents.add(new Event("Event " + i, FIRST_DAY.plusDays(i / 24), i % 24, i % 24 + 1));
+        }
+        model = new CalendarDataModel();
+        model.importEvents(newEvents);
+        model.setDate(FIRST_DAY);
+        model.setAgendaView(FIRST_DAY, FIRST_DAY.plusDays(90));
+        nextDay = FIRST_DAY.plusDays(events / 24 + 1).toEpochDay();
+        nextHour = 0;
+
+        lines = new String[LINES];
+        recurring = new Event[LINES];
+        for (int i = 0; i < LINES; i++) {
+            int startMonth = 1 + i % 11;
+            lines[i] = "Event " + i + ";2021;" + startMonth + ";" + (startMonth + 1) + ";"
+                    + (i % 2 == 0 ? "MWF" : "TH") + ";" + (i % 23) + ";" + (i % 23 + 1) + ";";
+            recurring[i] = new Event(lines[i]);
+        }
+
+        calendarShape = new CalendarShape(0, -10, FIRST_DAY);
+        clockShape = new ClockShape(50, Clock.fixed(FIRST_DAY.atTime(LocalTime.NOON).toInstant(ZoneOffset.UTC),
+                ZoneOffset.UTC));
+        clockShape.translate(175, 230);
+        BufferedImage image = new BufferedImage(500, 380, BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+    }
+
+    /**
+     * Builds a registry of calendars, each with a different hour taken on every day of the first week
+     * @param calendars the number of calendars in the registry
+     */
+    @Override
+    public void setUpRegistry(int calendars) {
+        registry = new CalendarRegistry();
+        ids = new ArrayList<>(calendars);
+        for (int i = 0; i < calendars; i++) {
+            String id = "user" + i;
+            ids.add(id);
+            ArrayList<Event> week = new ArrayList<>(7);
+            for (int day = 0; day < 7; day++) {
+                week.add(new Event("Meeting " + i, FIRST_DAY.plusDays(day), (i + day) % 24, (i + day) % 24 + 1));
+            }
+            registry.getOrCreate(id).importEvents(week);
+        }
+    }
+
+    /**
+     * Lists the first week's occurrences of the next group of calendars
+     * @param users the number of calendars queried
+     * @return the number of occurrences found
+     */
+    @Override
+    public int queryRegistry(int users) {
+        queryCounter = (queryCounter + users) % (ids.size() - users + 1);
+        int found = 0;
+        for (List<Occurrence> occurrences : registry.occurrences(ids.subList(queryCounter, queryCounter + users),
+                FIRST_DAY, FIRST_DAY.plusDays(6)).values()) {
+            found += occurrences.size();
+        }
+        return found;
+    }
+
+    /**
+     * Adds a one-hour event after the last event in the calendar
+     * @return the conflicting event, or null if it was added
+     */
+    @Override
+    public Object addEvent() {
+        Event event = new Event("New event", LocalDate.ofEpochDay(nextDay), nextHour, nextHour + 1);
+        nextHour++;
+        if (nextHour == 24) {
+            nextHour = 0;
+            nextDay++;
+        }
+        return model.addEvent(event);
+    }
+
+    /**
+     * Moves forward or back by one step of the view and gets the text area content
+     * @param view day, week, month or agenda
+     * @return the text area content
+     */
+    @Override
+    public String render(String view) {
+        if (!view.equals(model.getView())) {
+            if (view.equals("agenda")) {
+                model.setAgendaView(FIRST_DAY, FIRST_DAY.plusDays(90));
+            }
+            else {
+                model.setView(view);
+            }
+        }
+        forward = !forward;
+        switch (view) {
+            case "day" -> model.setDate(forward ? FIRST_DAY.plusDays(1) : FIRST_DAY);
+            case "week" -> model.setDate(forward ? FIRST_DAY.plusWeeks(1) : FIRST_DAY);
+            case "month" -> model.setDate(forward ? FIRST_DAY.plusMonths(1) : FIRST_DAY);
+            default -> model.setAgendaView(forward ? FIRST_DAY.plusDays(1) : FIRST_DAY, FIRST_DAY.plusDays(90));
+        }
+        return model.getTextAreaContent();
+    }
+
+    /**
+     * Parses the next line of the recurring event format
+     * @return the parsed event
+     */
+    @Override
+    public Object parseLine() {
+        lineCounter = (lineCounter + 1) & (LINES - 1);
+        return new Event(lines[lineCounter]);
+    }
+
+    /**
+     * Checks the next pair of recurring events for a conflict
+     * @return true if they conflict
+     */
+    @Override
+    public boolean conflictsWith() {
+        pairCounter = (pairCounter + 1) & (LINES - 1);
+        return recurring[pairCounter].conflictsWith(recurring[(pairCounter * 7) & (LINES - 1)]);
+    }
+
+    /**
+     * Draws the calendar shape into the offscreen image
+     */
+    @Override
+    public void drawCalendar() {
+        calendarShape.draw(graphics);
+    }
+
+    /**
+     * Draws the clock shape into the offscreen image
+     */
+    @Override
+    public void drawClock() {
+        clockShape.draw(graphics);
+    }
+}
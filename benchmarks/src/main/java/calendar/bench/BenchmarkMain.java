@@ -0,0 +1,30 @@
+package calendar.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the gc profiler turned on, so allocation rates are reported
+ * next to the timings. Takes the usual JMH command line options, for example
+ * "java -jar benchmarks.jar ModelBenchmark -p events=1000".
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+public class BenchmarkMain {
+    /**
+     * Runs the selected benchmarks
+     * @param args JMH command line options
+     * @throws CommandLineOptionException if an option cannot be read
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
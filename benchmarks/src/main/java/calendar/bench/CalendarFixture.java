@@ -0,0 +1,78 @@
+package calendar.bench;
+
+/**
+ * Operations the benchmarks measure. The calendar classes live in the default package,
+ * which cannot be imported from here (and JMH does not allow benchmarks in the default
+ * package), so the default-package CalendarBenchmarkFixture implements this interface
+ * and the benchmarks load it once by name.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+public interface CalendarFixture {
+    /**
+     * Builds a calendar with a number of non-conflicting events
+     * @param events the number of events in the calendar
+     */
+    void setUp(int events);
+
+    /**
+     * Adds one new event to the calendar through CalendarDataModel.addEvent
+     * @return the conflicting event, or null if it was added
+     */
+    Object addEvent();
+
+    /**
+     * Moves the calendar's date and gets the text area content for a view type
+     * @param view day, week, month or agenda
+     * @return the text area content
+     */
+    String render(String view);
+
+    /**
+     * Parses one line of the recurring event format with Event(String)
+     * @return the parsed event
+     */
+    Object parseLine();
+
+    /**
+     * Checks two recurring events for a conflict with Event.conflictsWith
+     * @return true if they conflict
+     */
+    boolean conflictsWith();
+
+    /**
+     * Draws the calendar shape into an offscreen image
+     */
+    void drawCalendar();
+
+    /**
+     * Draws the clock shape into an offscreen image
+     */
+    void drawClock();
+
+    /**
+     * Builds a CalendarRegistry of calendars with a week of one-hour events each
+     * @param calendars the number of calendars in the registry
+     */
+    void setUpRegistry(int calendars);
+
+    /**
+     * Lists the week's occurrences of several calendars with CalendarRegistry.occurrences
+     * @param users the number of calendars queried
+     * @return the number of occurrences found
+     */
+    int queryRegistry(int users);
+
+    /**
+     * Loads the default-package fixture
+     * @return a new fixture
+     */
+    static CalendarFixture create() {
+        try {
+            return (CalendarFixture) Class.forName("CalendarBenchmarkFixture").getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("CalendarBenchmarkFixture is missing from the classpath", exception);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package calendar.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Event(String) parsing and Event.conflictsWith
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class EventBenchmark {
+    private CalendarFixture fixture;
+
+    /**
+     * Builds the lines and events used by the benchmarks
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CalendarFixture.create();
+        fixture.setUp(10);
+    }
+
+    /**
+     * Parses one line of the recurring event format
+     * @return the parsed event
+     */
+    @Benchmark
+    public Object parseLine() {
+        return fixture.parseLine();
+    }
+
+    /**
+     * Checks two recurring events for a conflict
+     * @return true if they conflict
+     */
+    @Benchmark
+    public boolean conflictsWith() {
+        return fixture.conflictsWith();
+    }
+}
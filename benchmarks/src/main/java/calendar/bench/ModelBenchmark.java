@@ -0,0 +1,41 @@
+package calendar.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks CalendarDataModel.addEvent
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class ModelBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int events;
+
+    private CalendarFixture fixture;
+
+    /**
+     * Builds a fresh calendar for every iteration, so addEvent does not grow it without bound
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        fixture = CalendarFixture.create();
+        fixture.setUp(events);
+    }
+
+    /**
+     * Adds one event to a calendar of the given size
+     * @return the conflicting event, or null
+     */
+    @Benchmark
+    public Object addEvent() {
+        return fixture.addEvent();
+    }
+}
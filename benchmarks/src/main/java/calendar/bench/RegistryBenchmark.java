@@ -0,0 +1,44 @@
+package calendar.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks week queries that fan out over many calendars of a CalendarRegistry
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class RegistryBenchmark {
+    @Param({"10000"})
+    public int calendars;
+
+    @Param({"1", "50", "500"})
+    public int users;
+
+    private CalendarFixture fixture;
+
+    /**
+     * Builds the registry once, queries do not change it
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CalendarFixture.create();
+        fixture.setUpRegistry(calendars);
+    }
+
+    /**
+     * Lists a week of occurrences for a group of calendars
+     * @return the number of occurrences found
+     */
+    @Benchmark
+    public int weekForUsers() {
+        return fixture.queryRegistry(users);
+    }
+}
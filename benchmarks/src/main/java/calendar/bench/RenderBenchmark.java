@@ -0,0 +1,45 @@
+package calendar.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks CalendarShape.draw and ClockShape.draw into an offscreen BufferedImage
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    private CalendarFixture fixture;
+
+    /**
+     * Builds the shapes and the offscreen image
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CalendarFixture.create();
+        fixture.setUp(10);
+    }
+
+    /**
+     * Draws the month grid
+     */
+    @Benchmark
+    public void drawCalendar() {
+        fixture.drawCalendar();
+    }
+
+    /**
+     * Draws the clock
+     */
+    @Benchmark
+    public void drawClock() {
+        fixture.drawClock();
+    }
+}
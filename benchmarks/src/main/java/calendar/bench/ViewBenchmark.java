@@ -0,0 +1,44 @@
+package calendar.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks CalendarDataModel.getTextAreaContent for every view type
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class ViewBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    public int events;
+
+    @Param({"day", "week", "month", "agenda"})
+    public String view;
+
+    private CalendarFixture fixture;
+
+    /**
+     * Builds the calendar once, rendering does not change it
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = CalendarFixture.create();
+        fixture.setUp(events);
+    }
+
+    /**
+     * Moves the date and rebuilds the text area content for the view type
+     * @return the text area content
+     */
+    @Benchmark
+    public String getTextAreaContent() {
+        return fixture.render(view);
+    }
+}
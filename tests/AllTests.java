@@ -0,0 +1,26 @@
+/**
+ * AllTests class that runs every test in this folder. A failing check throws
+ * an AssertionError, so the run stops with a non-zero exit status.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.io.IOException;
+
+/**
+ * Runs the tests one after another
+ */
+public class AllTests {
+
+    /**
+     * Runs every test
+     * @param args not used
+     * @throws IOException if a test cannot write its temporary files
+     */
+    public static void main(String[] args) throws IOException {
+        EventStoreTest.main(args);
+        IcsRoundTripTest.main(args);
+        ConflictEngineTest.main(args);
+        FreeBusyIndexTest.main(args);
+        System.out.println("All tests passed, " + Expect.getPassed() + " checks");
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * ConflictEngineTest class that checks the packed time comparisons and the
+ * conflict engine against the hour comparison TimeInterval.overLapsWith made
+ * before times were packed, and that adding events in bulk matches adding
+ * them one at a time.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compares PackedTime.overlaps over every pair of hour intervals, and ConflictEngine over random
+ * calendars, with a brute-force check built on the original hour comparison
+ */
+public class ConflictEngineTest {
+    private static final String DAY_LETTERS = "MTWHFAS";
+
+    /**
+     * Runs the tests
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        overlapsAgreesWithHours();
+        engineAgreesWithBruteForce();
+        addAllMatchesAdd();
+        System.out.println("ConflictEngineTest passed");
+    }
+
+    /**
+     * Every pair of intervals between 0 and 24 hours overlaps exactly when the hours did
+     */
+    private static void overlapsAgreesWithHours() {
+        for (int start = 0; start < 24; start++) {
+            for (int end = start + 1; end <= 24; end++) {
+                for (int otherStart = 0; otherStart < 24; otherStart++) {
+                    for (int otherEnd = otherStart + 1; otherEnd <= 24; otherEnd++) {
+                        boolean expected = hoursOverlap(start, end, otherStart, otherEnd);
+                        String pair = start + "-" + end + " and " + otherStart + "-" + otherEnd;
+                        Expect.equal(expected, PackedTime.overlaps(PackedTime.packInterval(start * 60, end * 60),
+                                PackedTime.packInterval(otherStart * 60, otherEnd * 60)), "packed overlap of " + pair);
+                        Expect.equal(expected, new TimeInterval(start, end).overLapsWith(
+                                new TimeInterval(otherStart, otherEnd)), "interval overlap of " + pair);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The engine finds a conflict for exactly the events that share a day and overlapping hours
+     * with an event added before them
+     */
+    private static void engineAgreesWithBruteForce() {
+        Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            EventIndex index = new EventIndex();
+            ConflictEngine engine = new ConflictEngine(index);
+            ArrayList<Event> added = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                Event event = randomEvent(random, "Event " + i);
+                Event bruteForce = null;
+                for (Event other : added) {
+                    if (conflict(event, other)) {
+                        bruteForce = other;
+                        break;
+                    }
+                }
+                Event found = engine.findConflict(event);
+                Expect.equal(bruteForce == null, found == null, "conflict found for " + event);
+                if (found != null) {
+                    Expect.that(conflict(event, found), event + " conflicts with the event found, " + found);
+                }
+                else {
+                    added.add(event);
+                    index.add(event);
+                    engine.add(event);
+                }
+            }
+        }
+    }
+
+    /**
+     * The index, engine and timeline hold the same events in the same order whether events are added
+     * in one batch or one at a time after the events already in them
+     */
+    private static void addAllMatchesAdd() {
+        Random random = new Random(2);
+        for (int round = 0; round < 50; round++) {
+            EventIndex oneByOne = new EventIndex();
+            EventIndex bulk = new EventIndex();
+            ConflictEngine oneByOneEngine = new ConflictEngine(oneByOne);
+            ConflictEngine bulkEngine = new ConflictEngine(bulk);
+            EventTimeline oneByOneTimeline = new EventTimeline();
+            EventTimeline bulkTimeline = new EventTimeline();
+            ArrayList<Event> batch = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                Event event = randomEvent(random, "Event " + i);
+                oneByOne.add(event);
+                oneByOneEngine.add(event);
+                oneByOneTimeline.add(event);
+                if (i < 10) {
+                    bulk.add(event);
+                    bulkEngine.add(event);
+                    bulkTimeline.add(event);
+                }
+                else {
+                    batch.add(event);
+                }
+            }
+            bulk.addAll(batch);
+            bulkEngine.addAll(batch);
+            bulkTimeline.addAll(batch);
+
+            Expect.equal(oneByOne.getOccurrenceCount(), bulk.getOccurrenceCount(), "occurrences after a bulk add");
+            Expect.equal(oneByOne.size(), bulk.size(), "days after a bulk add");
+            oneByOne.getRange(Long.MIN_VALUE, Long.MAX_VALUE).forEach((day, bucket) ->
+                    Expect.that(Arrays.equals(bucket, bulk.getRange(day, day).get(day)), "bucket of day " + day));
+            Expect.equal(oneByOneTimeline.toList(), bulkTimeline.toList(), "timeline after a bulk add");
+            for (int i = 0; i < 20; i++) {
+                Event probe = randomEvent(random, "Probe " + i);
+                Expect.equal(oneByOneEngine.findConflict(probe), bulkEngine.findConflict(probe),
+                        "conflict found for " + probe);
+            }
+        }
+    }
+
+    /**
+     * Makes a one-time event or a recurring event over one to a few months of 2021
+     * @param random the source of the fields
+     * @param name the event's name
+     * @return the event
+     */
+    private static Event randomEvent(Random random, String name) {
+        int startHour = random.nextInt(24);
+        int endHour = startHour + 1 + random.nextInt(24 - startHour);
+        if (random.nextBoolean()) {
+            return new Event(name, LocalDate.of(2021, 1, 1).plusDays(random.nextInt(200)), startHour, endHour);
+        }
+        int startMonth = 1 + random.nextInt(11);
+        int endMonth = startMonth + 1 + random.nextInt(12 - startMonth);
+        StringBuilder days = new StringBuilder();
+        for (char day : DAY_LETTERS.toCharArray()) {
+            if (random.nextInt(4) == 0) {
+                days.append(day);
+            }
+        }
+        if (days.length() == 0) {
+            days.append('M');
+        }
+        return new Event(name + ";2021;" + startMonth + ";" + endMonth + ";" + days + ";" + startHour + ";"
+                + endHour + ";");
+    }
+
+    /**
+     * Checks two events the slow way: a common day and overlapping hours
+     * @param event an event
+     * @param other another event
+     * @return true if the events conflict
+     */
+    private static boolean conflict(Event event, Event other) {
+        TimeInterval times = event.getTimeInterval_();
+        TimeInterval otherTimes = other.getTimeInterval_();
+        if (!hoursOverlap(times.getStartTime_(), times.getEndTime_(), otherTimes.getStartTime_(),
+                otherTimes.getEndTime_())) {
+            return false;
+        }
+        Set<Long> days = event.getDays().boxed().collect(Collectors.toSet());
+        return other.getDays().anyMatch(days::contains);
+    }
+
+    /**
+     * The comparison TimeInterval.overLapsWith made when intervals were kept as whole hours
+     * @param start the first interval's start hour
+     * @param end the first interval's end hour
+     * @param otherStart the second interval's start hour
+     * @param otherEnd the second interval's end hour
+     * @return true if the intervals overlap
+     */
+    private static boolean hoursOverlap(int start, int end, int otherStart, int otherEnd) {
+        return (end == otherEnd) || (end > otherStart && end < otherEnd) || (otherEnd > start && otherEnd < end);
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * EventStoreTest class that checks that a store reopens with every event
+ * whose log record was fully written, when the log ends in a torn record or
+ * holds a record whose checksum does not match.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes a few events through a store, damages the log the way a crash or a bad disk would, and reopens it
+ */
+public class EventStoreTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    /**
+     * Runs the tests
+     * @param args not used
+     * @throws IOException if a temporary store cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        recoversFromTornTail();
+        recoversFromBadChecksum();
+        leavesCalendarUnchangedWhenAppendFails();
+        readsVersionOneSnapshots();
+        System.out.println("EventStoreTest passed");
+    }
+
+    /**
+     * A record cut off in the middle is dropped, the log is cut back to the last whole record,
+     * and new events are appended after it
+     * @throws IOException if the temporary store cannot be written
+     */
+    private static void recoversFromTornTail() throws IOException {
+        Path directory = Files.createTempDirectory("event-store-test");
+        try {
+            long[] sizes = writeEvents(directory, "Standup", "Review", "Retro");
+            Path log = directory.resolve("events.log");
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                channel.truncate(sizes[2] - 3);
+            }
+
+            try (EventStore store = new EventStore(directory)) {
+                CalendarCore core = store.load();
+                Expect.equal(List.of("Standup", "Review"), names(core), "events kept after a torn tail");
+                Expect.equal(sizes[1], Files.size(log), "log length after a torn tail");
+                core.addEvent(new Event("Planning", DAY.plusDays(3), 9, 10));
+            }
+            try (EventStore store = new EventStore(directory)) {
+                Expect.equal(List.of("Standup", "Review", "Planning"), names(store.load()),
+                        "events appended after recovering from a torn tail");
+            }
+        }
+        finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * A record whose payload does not match its checksum ends the log: it and the records after it are dropped
+     * @throws IOException if the temporary store cannot be written
+     */
+    private static void recoversFromBadChecksum() throws IOException {
+        Path directory = Files.createTempDirectory("event-store-test");
+        try {
+            long[] sizes = writeEvents(directory, "Standup", "Review", "Retro");
+            Path log = directory.resolve("events.log");
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                //flip the first letter of the second record's name: [length][checksum][type][name length][name]
+                long position = sizes[0] + 4 + 4 + 1 + 2;
+                ByteBuffer letter = ByteBuffer.allocate(1);
+                channel.read(letter, position);
+                channel.write(letter.put(0, (byte) (letter.get(0) ^ 0x20)).rewind(), position);
+            }
+
+            try (EventStore store = new EventStore(directory)) {
+                Expect.equal(List.of("Standup"), names(store.load()), "events kept before a bad checksum");
+                Expect.equal(sizes[0], Files.size(log), "log length after a bad checksum");
+            }
+        }
+        finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * An event the store cannot write is not added, so the calendar never holds events the disk does not
+     * @throws IOException if the temporary store cannot be written
+     */
+    private static void leavesCalendarUnchangedWhenAppendFails() throws IOException {
+        Path directory = Files.createTempDirectory("event-store-test");
+        try {
+            EventStore store = new EventStore(directory);
+            CalendarCore core = store.load();
+            core.addEvent(new Event("Standup", DAY, 9, 10));
+            long version = core.getVersion();
+            store.close(); //appending to a closed log fails
+            try {
+                core.addEvent(new Event("Review", DAY.plusDays(1), 9, 10));
+                Expect.that(false, "adding to a closed store fails");
+            }
+            catch (UncheckedIOException exception) {
+                Expect.equal(List.of("Standup"), names(core), "events after a failed append");
+                Expect.equal(version, core.getVersion(), "version after a failed append");
+            }
+        }
+        finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * A version 1 snapshot, with times in whole hours, still loads, and one whose hours are out of range
+     * fails to load with an IOException instead of an unchecked exception
+     * @throws IOException if the temporary store cannot be written
+     */
+    private static void readsVersionOneSnapshots() throws IOException {
+        Path directory = Files.createTempDirectory("event-store-test");
+        try {
+            writeVersionOneSnapshot(directory, 9, 10);
+            try (EventStore store = new EventStore(directory)) {
+                List<Event> events = store.load().getEvents();
+                Expect.equal(List.of("Standup"), events.stream().map(Event::getName_).toList(), "version 1 events");
+                Expect.equal("9:00-10:00", events.get(0).getTimeInterval_().toString(), "version 1 times");
+            }
+            delete(directory);
+            Files.createDirectories(directory);
+            writeVersionOneSnapshot(directory, 10, 9);
+            try (EventStore store = new EventStore(directory)) {
+                store.load();
+                Expect.that(false, "a record ending before it starts does not load");
+            }
+            catch (IOException exception) {
+                Expect.equal("Corrupt record", exception.getMessage(), "error for an out of range record");
+            }
+        }
+        finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Writes a version 1 snapshot holding one event on DAY
+     * @param directory the store's directory
+     * @param startHour the event's start hour
+     * @param endHour the event's end hour
+     * @throws IOException if the snapshot cannot be written
+     */
+    private static void writeVersionOneSnapshot(Path directory, int startHour, int endHour) throws IOException {
+        byte[] name = "Standup".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer snapshot = ByteBuffer.allocate(20 + 1 + 2 + name.length + 8 + 8 + 4 + 4 + 4);
+        snapshot.putInt(0x43414C53).putInt(1).putLong(0).putInt(1) //magic, version, log generation, events
+                .put((byte) 1).putShort((short) name.length).put(name).putLong(DAY.toEpochDay())
+                .putLong(DAY.toEpochDay()).putInt(Event.ALL_DAYS).putInt(startHour).putInt(endHour);
+        Files.write(directory.resolve("events.snapshot"), snapshot.array());
+    }
+
+    /**
+     * Adds one event per name to a new store, on consecutive days
+     * @param directory the store's directory
+     * @param names the events' names
+     * @return the length of the log after each event was appended
+     * @throws IOException if the store cannot be written
+     */
+    private static long[] writeEvents(Path directory, String... names) throws IOException {
+        long[] sizes = new long[names.length];
+        try (EventStore store = new EventStore(directory)) {
+            CalendarCore core = store.load();
+            for (int i = 0; i < names.length; i++) {
+                Expect.that(core.addEvent(new Event(names[i], DAY.plusDays(i), 9, 10)) == null,
+                        names[i] + " was added");
+                sizes[i] = Files.size(directory.resolve("events.log"));
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Gets the names of a calendar's events
+     * @param core the calendar
+     * @return the names in the calendar's order
+     */
+    private static List<String> names(CalendarCore core) {
+        return core.getEvents().stream().map(Event::getName_).toList();
+    }
+
+    /**
+     * Deletes a temporary directory and its files
+     * @param directory the directory
+     * @throws IOException if a file cannot be deleted
+     */
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
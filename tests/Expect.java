@@ -0,0 +1,45 @@
+/**
+ * Expect class with the checks the tests in this folder share. The tests are
+ * plain classes with a main method, so they run with only a JDK:
+ * javac -d out *.java tests/*.java && java -cp out AllTests
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.util.Objects;
+
+/**
+ * Fails a test by throwing an AssertionError that describes the check, and counts the checks that pass
+ */
+public class Expect {
+    private static int passed_;
+
+    /**
+     * Checks that a condition holds
+     * @param condition the condition
+     * @param message what was expected, for the error
+     */
+    public static void that(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+        passed_++;
+    }
+
+    /**
+     * Checks that two values are equal
+     * @param expected the expected value
+     * @param actual the actual value
+     * @param message what was checked, for the error
+     */
+    public static void equal(Object expected, Object actual, String message) {
+        that(Objects.equals(expected, actual), message + ": expected " + expected + " but was " + actual);
+    }
+
+    /**
+     * Gets the number of checks that passed so far
+     * @return the number of checks
+     */
+    public static int getPassed() {
+        return passed_;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * FreeBusyIndexTest class that checks the free slots found across several
+ * calendars, to the minute, and that an index follows its calendar until it
+ * is detached.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds free slots in small calendars whose free times are known
+ */
+public class FreeBusyIndexTest {
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    /**
+     * Runs the tests
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        findsSlotsFreeInEveryCalendar();
+        findsSlotsToTheMinute();
+        movesOnToLaterDays();
+        rejectsInvalidSlots();
+        followsCalendarUntilDetached();
+        System.out.println("FreeBusyIndexTest passed");
+    }
+
+    /**
+     * Slots are free in every calendar, within the hours of the day asked for, in order
+     */
+    private static void findsSlotsFreeInEveryCalendar() {
+        FreeBusyIndex first = index(new Event("Standup", MONDAY, 9, 10));
+        FreeBusyIndex second = index(new Event("Workshop", MONDAY, 10, 12));
+        long[] slots = FreeBusyIndex.findFreeSlots(List.of(first, second), MONDAY, MONDAY, 8 * 60, 17 * 60, 60, 10);
+        Expect.equal(List.of("8:00-9:00", "12:00-13:00", "13:00-14:00", "14:00-15:00", "15:00-16:00", "16:00-17:00"),
+                format(slots, MONDAY), "hour slots between 8 and 17");
+        Expect.equal(2, FreeBusyIndex.findFreeSlots(List.of(first, second), MONDAY, MONDAY, 60, 2).length,
+                "slots are capped at the count");
+    }
+
+    /**
+     * Events that start and end off the hour leave slots that do too
+     */
+    private static void findsSlotsToTheMinute() {
+        FreeBusyIndex calendar = index(new Event("Call", MONDAY, TimeInterval.ofMinutes(9 * 60 + 30, 10 * 60 + 15)));
+        long[] slots = FreeBusyIndex.findFreeSlots(List.of(calendar), MONDAY, MONDAY, 9 * 60, 11 * 60, 30, 10);
+        Expect.equal(List.of("9:00-9:30", "10:15-10:45"), format(slots, MONDAY), "half-hour slots around a call");
+        Expect.that(calendar.isBusy(MONDAY.toEpochDay(), 10 * 60 + 14), "10:14 is busy");
+        Expect.that(!calendar.isBusy(MONDAY.toEpochDay(), 10 * 60 + 15), "10:15 is free");
+    }
+
+    /**
+     * A day with no room is skipped, and a slot longer than any gap is not found
+     */
+    private static void movesOnToLaterDays() {
+        FreeBusyIndex calendar = index(new Event("Offsite", MONDAY, 8, 17),
+                new Event("Lunch", MONDAY.plusDays(1), 12, 13));
+        long[] slots = FreeBusyIndex.findFreeSlots(List.of(calendar), MONDAY, MONDAY.plusDays(6), 8 * 60, 17 * 60,
+                4 * 60, 1);
+        Expect.equal(1, slots.length, "one slot found");
+        Expect.equal(MONDAY.plusDays(1).toEpochDay(), PackedTime.day(slots[0]), "the slot is on Tuesday");
+        Expect.equal(List.of("8:00-12:00"), format(slots, MONDAY.plusDays(1)), "the morning is free on Tuesday");
+        Expect.equal(0, FreeBusyIndex.findFreeSlots(List.of(calendar), MONDAY, MONDAY, 8 * 60, 17 * 60, 60, 1).length,
+                "no slot on a full day");
+    }
+
+    /**
+     * Slots with no length or outside a day are not searched for
+     */
+    private static void rejectsInvalidSlots() {
+        FreeBusyIndex calendar = new FreeBusyIndex();
+        for (int[] slot : new int[][] {{0, 1440, 0}, {-1, 1440, 60}, {0, 1441, 60}, {600, 540, 30}}) {
+            try {
+                FreeBusyIndex.findFreeSlots(List.of(calendar), MONDAY, MONDAY, slot[0], slot[1], slot[2], 1);
+                Expect.that(false, "a " + slot[2] + " minute slot between " + slot[0] + " and " + slot[1] + " is invalid");
+            }
+            catch (IllegalArgumentException exception) {
+                Expect.that(true, "invalid slot rejected");
+            }
+        }
+    }
+
+    /**
+     * An index made from a calendar sees the events added to it, and stops once it is detached
+     */
+    private static void followsCalendarUntilDetached() {
+        CalendarCore core = new CalendarCore();
+        core.addEvent(new Event("Standup", MONDAY, 9, 10));
+        FreeBusyIndex calendar = FreeBusyIndex.of(core);
+        Expect.that(calendar.isBusy(MONDAY.toEpochDay(), 9 * 60), "events added before the index are busy");
+        core.addEvent(new Event("Review", MONDAY, 14, 15));
+        Expect.that(calendar.isBusy(MONDAY.toEpochDay(), 14 * 60), "events added after the index are busy");
+        calendar.detach();
+        core.addEvent(new Event("Retro", MONDAY, 16, 17));
+        Expect.that(!calendar.isBusy(MONDAY.toEpochDay(), 16 * 60), "events added after detaching are not seen");
+    }
+
+    /**
+     * Makes an index of a few events
+     * @param events the events
+     * @return the index
+     */
+    private static FreeBusyIndex index(Event... events) {
+        FreeBusyIndex index = new FreeBusyIndex();
+        for (Event event : events) {
+            index.add(event);
+        }
+        return index;
+    }
+
+    /**
+     * Formats slots that all fall on one day
+     * @param slots packed occurrences
+     * @param date the day every slot must be on
+     * @return the slots' times, such as 9:00-10:00
+     */
+    private static List<String> format(long[] slots, LocalDate date) {
+        ArrayList<String> times = new ArrayList<>();
+        for (long slot : slots) {
+            Expect.equal(date.toEpochDay(), PackedTime.day(slot), "day of slot");
+            times.add(TimeInterval.ofPacked(PackedTime.interval(slot)).toString());
+        }
+        return times;
+    }
+}
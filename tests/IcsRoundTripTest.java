@@ -0,0 +1,139 @@
+/**
+ * IcsRoundTripTest class that checks that events written by IcsWriter are
+ * read back by IcsReader as the same occurrences, that long lines are folded,
+ * and that rules ending with UNTIL or COUNT end on the right day.
+ * @author Dimitar Dimitrov
+ * @version 10/18/2026
+ */
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Round trips a few kinds of events through an iCalendar file and reads rules written by hand
+ */
+public class IcsRoundTripTest {
+
+    /**
+     * Runs the tests
+     * @param args not used
+     * @throws IOException if the iCalendar text cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        roundTripsEvents();
+        foldsLongLines();
+        endsRulesOnUntilAndCount();
+        System.out.println("IcsRoundTripTest passed");
+    }
+
+    /**
+     * Weekly, daily, one-time and midnight-ending events keep their names, times and occurrences
+     * @throws IOException if the iCalendar text cannot be written or read
+     */
+    private static void roundTripsEvents() throws IOException {
+        List<Event> events = List.of(
+                EventFileParser.parseLine("Lecture;2026;2;5;MWF;9;10;"),
+                new Event("Gym", TimeInterval.ofMinutes(6 * 60 + 30, 7 * 60 + 15),
+                        LocalDate.of(2026, 1, 1).toEpochDay(), LocalDate.of(2026, 1, 31).toEpochDay(), Event.ALL_DAYS),
+                new Event("Dentist; then lunch, \\ errands", LocalDate.of(2026, 4, 7), 13, 14),
+                new Event("Late shift", LocalDate.of(2026, 4, 8), 22, 24));
+        List<Event> read = read(write(events));
+
+        Expect.equal(events.size(), read.size(), "events read back");
+        for (int i = 0; i < events.size(); i++) {
+            Event expected = events.get(i);
+            Event actual = read.get(i);
+            Expect.equal(expected.getName_(), actual.getName_(), "name");
+            Expect.equal(expected.getTimeInterval_().getPacked(), actual.getTimeInterval_().getPacked(),
+                    expected.getName_() + " times");
+            Expect.that(Arrays.equals(expected.getDays().toArray(), actual.getDays().toArray()),
+                    expected.getName_() + " occurs on the same days");
+        }
+    }
+
+    /**
+     * No physical line is longer than 75 octets, and a name folded over several lines,
+     * even in the middle of multi-byte characters, is read back whole
+     * @throws IOException if the iCalendar text cannot be written or read
+     */
+    private static void foldsLongLines() throws IOException {
+        String name = "Ann\u00e9e scolaire \u2013 r\u00e9union des parents \uD83C\uDF93 ".repeat(6).trim();
+        Event event = new Event(name, LocalDate.of(2026, 9, 1), 18, 20);
+        byte[] ics = write(List.of(event));
+
+        int longest = 0;
+        int continuations = 0;
+        int lineStart = 0;
+        for (int i = 0; i + 1 < ics.length; i++) {
+            if (ics[i] == '\r' && ics[i + 1] == '\n') {
+                longest = Math.max(longest, i - lineStart);
+                lineStart = i + 2;
+                continuations += lineStart < ics.length && ics[lineStart] == ' ' ? 1 : 0;
+            }
+        }
+        Expect.that(longest <= 75, "lines are at most 75 octets, the longest was " + longest);
+        Expect.that(continuations >= 3, "the name was folded over several lines");
+        String text = new String(ics, StandardCharsets.UTF_8);
+        Expect.that(!text.contains("\uFFFD"), "folding did not split a character");
+        Expect.equal(name, read(ics).get(0).getName_(), "folded name");
+    }
+
+    /**
+     * UNTIL is inclusive, so its day only occurs if the event starts by the UNTIL time,
+     * and COUNT ends a rule on its last occurrence
+     * @throws IOException if the iCalendar text cannot be read
+     */
+    private static void endsRulesOnUntilAndCount() throws IOException {
+        LocalDate monday = LocalDate.of(2026, 1, 5);
+        Expect.equal(monday.plusDays(4), lastDay("FREQ=DAILY;UNTIL=20260109T090000"), "UNTIL at the start time");
+        Expect.equal(monday.plusDays(3), lastDay("FREQ=DAILY;UNTIL=20260109T085959"), "UNTIL before the start time");
+        Expect.equal(monday.plusDays(4), lastDay("FREQ=DAILY;UNTIL=20260109"), "UNTIL as a date");
+        //Monday, Wednesday, Monday, Wednesday, Monday
+        Expect.equal(monday.plusDays(14), lastDay("FREQ=WEEKLY;BYDAY=MO,WE;COUNT=5"), "COUNT over several weeks");
+        Expect.equal(monday, lastDay("FREQ=WEEKLY;COUNT=1"), "COUNT of one");
+    }
+
+    /**
+     * Reads a 9:00-10:00 event starting on Monday 2026-01-05 with a rule
+     * @param rule the RRULE value
+     * @return the date of the event's last occurrence
+     * @throws IOException if the iCalendar text cannot be read
+     */
+    private static LocalDate lastDay(String rule) throws IOException {
+        String ics = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nBEGIN:VEVENT\r\nDTSTART:20260105T090000\r\n"
+                + "DTEND:20260105T100000\r\nRRULE:" + rule + "\r\nSUMMARY:Standup\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n";
+        List<Event> events = read(ics.getBytes(StandardCharsets.UTF_8));
+        Expect.equal(1, events.size(), "events read for " + rule);
+        return LocalDate.ofEpochDay(events.get(0).getDays().max().orElseThrow());
+    }
+
+    /**
+     * Writes events as iCalendar text
+     * @param events the events
+     * @return the text's bytes
+     * @throws IOException if the text cannot be written
+     */
+    private static byte[] write(List<Event> events) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new IcsWriter(Channels.newChannel(bytes)).write(events);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads events from iCalendar text
+     * @param ics the text's bytes
+     * @return the events in the order of the text
+     * @throws IOException if the text cannot be read
+     */
+    private static List<Event> read(byte[] ics) throws IOException {
+        IcsReader reader = new IcsReader(Channels.newChannel(new ByteArrayInputStream(ics)));
+        List<Event> events = reader.readAll();
+        Expect.that(reader.getInvalidLines().isEmpty(), "every VEVENT was read, invalid: " + reader.getInvalidLines());
+        return events;
+    }
+}